@@ -60,7 +60,10 @@ public class SecurityConfig {
                         // ==============================================
                         // 首页/健康检查
                         .requestMatchers(new AntPathRequestMatcher("/")).permitAll()
-                        // 文章相关（查询类接口）
+                        // 文章相关（查询类接口）；管理员导出接口须在公开的GET规则之前匹配
+                        .requestMatchers(new AntPathRequestMatcher("/api/articles/admin/**", "GET")).hasRole("ADMIN")
+                        .requestMatchers(new AntPathRequestMatcher("/api/articles/*/revisions/**", "GET")).authenticated() // 修订历史含已删改的内容，需登录，作者本人或管理员才能查看（服务层校验）
+                        .requestMatchers(new AntPathRequestMatcher("/api/articles/drafts/**")).authenticated() // 草稿只对作者本人可见
                         .requestMatchers(new AntPathRequestMatcher("/api/articles", "GET")).permitAll() // 文章列表
                         .requestMatchers(new AntPathRequestMatcher("/api/articles/**", "GET")).permitAll() // 文章详情、点赞数/评论数查询
                         // 分类和标签（仅查询接口公开）
@@ -102,6 +105,7 @@ public class SecurityConfig {
                         // 全量文章管理（编辑/删除任何文章）
                         .requestMatchers(new AntPathRequestMatcher("/api/articles/admin/edit/**", "PUT")).hasRole("ADMIN")
                         .requestMatchers(new AntPathRequestMatcher("/api/articles/admin/delete/**", "DELETE")).hasRole("ADMIN")
+                        .requestMatchers(new AntPathRequestMatcher("/api/articles/admin/import", "POST")).hasRole("ADMIN") // 批量导入文章
                         // 用户管理
                         .requestMatchers(new AntPathRequestMatcher("/api/users/list", "GET")).hasRole("ADMIN") // 查看所有用户
                         .requestMatchers(new AntPathRequestMatcher("/api/users/role/**", "PUT")).hasRole("ADMIN") // 修改用户角色
@@ -2,23 +2,37 @@ package com.example.weijiahome.controller;
 
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.dto.ArticleDraftDTO;
 import com.example.weijiahome.entity.dto.CreatArticlesDTO;
 import com.example.weijiahome.entity.dto.GetArticlesDTO;
+import com.example.weijiahome.entity.dto.SchedulePublishDTO;
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.enums.ArticleSortField;
 import com.example.weijiahome.entity.po.*;
 import com.example.weijiahome.entity.vo.*;
 import com.example.weijiahome.entity.po.Result;
-import com.example.weijiahome.mapper.UsersMapper;
+import com.example.weijiahome.exception.BusinessException;
 import com.example.weijiahome.service.*;
 import com.example.weijiahome.utils.JwtUtil;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * <p>
@@ -31,6 +45,11 @@ import java.util.Map;
 @RestController
 @RequestMapping("/api/articles")
 public class ArticlesController {
+    /**
+     * 文章列表和详情：允许缓存，但每次使用前都要用ETag向服务端确认
+     */
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePublic();
+
     @Autowired
     private ICommentLikesService commentLikesService;
     @Autowired
@@ -40,9 +59,33 @@ public class ArticlesController {
     @Autowired
     private IArticleTagsService articleTagsService;
     @Autowired
-    private ICategoriesService categoriesService;
+    private IArticleDetailCacheService articleDetailCacheService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+    @Autowired
+    private ILikeService likeService;
+    @Autowired
+    private IArticleImportService articleImportService;
+    @Autowired
+    private IArticleExportService articleExportService;
+    @Autowired
+    private IArticleRevisionService articleRevisionService;
+    @Autowired
+    private IArticleDraftService articleDraftService;
+    @Autowired
+    private IArticlePublishScheduleService articlePublishScheduleService;
+    @Autowired
+    private IViewerStateService viewerStateService;
     @Autowired
-    private UsersMapper usersMapper;
+    private IArticleShareService articleShareService;
+    @Autowired
+    private IHotArticleService hotArticleService;
+    @Autowired
+    private IRelatedArticleService relatedArticleService;
+    @Autowired
+    private IShareCodeService shareCodeService;
+    @Autowired
+    private IContentVersionService contentVersionService;
     @Autowired
     private JwtUtil jwtUtil;
     @Autowired
@@ -52,44 +95,81 @@ public class ArticlesController {
 
     /**
      * 获取文章列表
+     * 支持两种翻页：传page为偏移分页；传cursor（上一页返回的nextCursor）为游标分页，深翻页不再扫描前面的行
      * @param articlesDTO
      * @return
      */
     @GetMapping()
-    public Result<PageResultVO<ArticleVO>> getArticles(GetArticlesDTO articlesDTO) {
+    public ResponseEntity<Result<PageResultVO<ArticleVO>>> getArticles(GetArticlesDTO articlesDTO, WebRequest request) {
+        //按计数排序时顺序随计数实时变化，不做条件请求
+        if (!ArticleSortField.of(articlesDTO.getSort()).isTime()) {
+            return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                    .body(Result.cacheable(articlesService.getArticles(articlesDTO)));
+        }
+        //列表没有变化时直接返回304，不查库（ETag不含计数，计数用 /counters 刷新）
+        String etag = contentVersionService.articleListETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         PageResultVO<ArticleVO> result = articlesService.getArticles(articlesDTO);
-        return Result.ok(result);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(Result.cacheable(result));
+    }
+    /**
+     * 热门文章，按浏览、点赞、评论、分享加权并随时间衰减的热度排序，直接读内存排行
+     * @param limit 条数
+     */
+    @GetMapping("/hot")
+    public Result<List<ArticleVO>> hotArticles(@RequestParam(value = "limit", defaultValue = "10") Integer limit){
+        return Result.ok(hotArticleService.getHotArticles(Math.max(1, limit)));
+    }
+    /**
+     * 批量获取当前用户的互动状态，列表页一次请求取回所有卡片的点赞、收藏、关注状态
+     * @param articleIds 文章id列表，逗号分隔
+     * @param authorIds 作者id列表，逗号分隔
+     */
+    @GetMapping("/viewer-state")
+    public Result<ViewerStateVO> viewerState(@RequestParam(value = "articleIds", required = false) List<Integer> articleIds,
+                                             @RequestParam(value = "authorIds", required = false) List<Integer> authorIds,
+                                             @RequestHeader ("Authorization") String authorization){
+        Integer userId = getuserIdFromToken(authorization);
+        return Result.ok(viewerStateService.getViewerState(userId, articleIds, authorIds));
+    }
+    /**
+     * 相关文章，按标签/分类和正文的 MinHash 相似度排序，直接读内存签名
+     * @param limit 条数
+     */
+    @GetMapping("/{id}/related")
+    public Result<List<ArticleVO>> relatedArticles(@PathVariable Integer id,
+                                                   @RequestParam(value = "limit", defaultValue = "5") Integer limit){
+        return Result.ok(relatedArticleService.getRelatedArticles(id, limit));
     }
-    //获取文章详情
+    /**
+     * 批量获取文章的实时计数（浏览、点赞、评论、分享，含尚未落库的增量），不缓存
+     * 列表和详情的ETag不包含计数，页面用缓存展示后用这个接口刷新计数
+     * @param ids 文章id列表，逗号分隔
+     */
+    @GetMapping("/counters")
+    public ResponseEntity<Result<List<ArticleCountersVO>>> counters(@RequestParam("ids") List<Integer> ids) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore())
+                .body(Result.ok(articleCounterService.getCounters(ids)));
+    }
+    //获取文章详情（读缓存，未命中时查库组装；内容未变化时返回304）
     @GetMapping("/{id}")
-    public Result<ArticleVO> getArticleById(@PathVariable Integer id) {
-        Articles article = articlesService.getById(id);
-        if (article == null) {
-            return Result.error(404,"文章不存在"); // 或返回 404 状态码
+    public ResponseEntity<Result<ArticleVO>> getArticleById(@PathVariable Integer id, WebRequest request) {
+        ArticleVO articleVO = articleDetailCacheService.getArticleDetail(id);
+        if (articleVO == null) {
+            return ResponseEntity.ok(Result.error(404,"文章不存在")); // 或返回 404 状态码
         }
-        
-        // 转换为VO对象
-        ArticleVO articleVO = new ArticleVO();
-        BeanUtils.copyProperties(article, articleVO);
-        
-        // 设置作者信息
-        if (article.getAuthorId() != null) {
-            Users author = usersMapper.selectById(article.getAuthorId());
-            articleVO.setAuthor(author);
+        // 浏览数先记在内存里，定时批量写回；浏览器用缓存展示（304）也算一次浏览
+        articleCounterService.increment(id, ArticleCounterType.VIEW, 1);
+        // ETag由文章的 update_time 和作者、分类、标签决定，计数变化不影响
+        String etag = contentVersionService.articleETag(articleVO);
+        if (request.checkNotModified(etag)) {
+            return null;
         }
-        
-        // 设置分类信息
-        Integer categoryId = articleCategoriesService.getCategorie(id);
-        if (categoryId != null) {
-            Categories category = categoriesService.getById(categoryId);
-            articleVO.setCategory(category);
-        }
-        
-        // 设置标签信息
-        List<Tags> tags = articleTagsService.getTags(id);
-        articleVO.setTags(tags);
-        
-        return Result.ok(articleVO);
+        // 返回值带上尚未落库的增量
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE)
+                .body(Result.cacheable(articleCounterService.withPending(articleVO)));
     }
     // 创建文章
     @PostMapping()
@@ -111,73 +191,122 @@ public class ArticlesController {
         String userId = jwtUtil.getUserIdFromToken(token);
         int authorId = Integer.parseInt(userId);
 
-        // 2. 保存文章主表信息
-        Articles article = new Articles();
-        article.setTitle(articlesDTO.getTitle())
-                .setContent(articlesDTO.getContent())
-                .setAuthorId(authorId);
+        // 2. 在一个事务中保存文章及其标签、分类关联
+        Integer articleId = articlesService.createArticles(authorId, articlesDTO);
 
-        boolean isSaved = articlesService.save(article);
-        if (!isSaved) {
-            return Result.error(404,"文章保存失败");
+        System.out.println("文章的id是"+articleId);
+        return Result.ok(articleId);
+    }
+    /**
+     * 批量导入文章（管理员）：请求体直接是NDJSON或Markdown压缩包，边读边写
+     * @param format ndjson（默认）或 markdown-zip
+     * @return 成功/失败条数、吞吐量和失败记录
+     */
+    @PostMapping("/admin/import")
+    public Result<ImportReportVO> importArticles(@RequestHeader("Authorization") String authHeader,
+                                                 @RequestParam(value = "format", defaultValue = "ndjson") String format,
+                                                 HttpServletRequest request) throws IOException {
+        String token = authHeader.substring(7).trim();
+        int authorId = Integer.parseInt(jwtUtil.getUserIdFromToken(token));
+        try (InputStream in = request.getInputStream()) {
+            if ("ndjson".equalsIgnoreCase(format)) {
+                return Result.ok(articleImportService.importNdjson(authorId, in));
+            }
+            if ("markdown-zip".equalsIgnoreCase(format)) {
+                return Result.ok(articleImportService.importMarkdownZip(authorId, in));
+            }
         }
-//        QueryWrapper<Articles> qw =new QueryWrapper<>();
-//        qw.eq("author_id",authorId).select("id").ge("create_time", LocalDateTime.now().minusSeconds(30));
-//        Articles one = articlesService.getOne(qw);
-//        Integer id = one.getId();
-
-        // 3. 处理标签关联（文章-标签是多对多关系）
-        List<Integer> tagIds = articlesDTO.getTagIds();
-        if (tagIds != null && !tagIds.isEmpty()) {
-            List<ArticleTags> articleTagsList = new ArrayList<>();
-            for (Integer tagId : tagIds) {
-                ArticleTags articleTag = new ArticleTags();
-                articleTag.setArticleId(article.getId()) // 使用刚保存的文章ID
-                        .setTagId(tagId);
-                articleTagsList.add(articleTag);
+        return Result.error(400, "不支持的导入格式：" + format);
+    }
+    /**
+     * 全量导出文章（管理员）：NDJSON直接流式写到响应，format=gzip 时压缩
+     * @param format ndjson（默认）或 gzip
+     */
+    @GetMapping("/admin/export")
+    public ResponseEntity<StreamingResponseBody> exportArticles(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        boolean gzip = "gzip".equalsIgnoreCase(format);
+        if (!gzip && !"ndjson".equalsIgnoreCase(format)) {
+            throw new BusinessException("不支持的导出格式：" + format);
+        }
+        String fileName = "articles-" + LocalDate.now() + (gzip ? ".ndjson.gz" : ".ndjson");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024, true);
+                articleExportService.exportNdjson(gzipOut);
+                gzipOut.finish();
+            } else {
+                articleExportService.exportNdjson(out);
             }
-            // 批量保存文章-标签关联数据
-            articleTagsService.saveBatch(articleTagsList);
+        };
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : MediaType.parseMediaType("application/x-ndjson"))
+                .cacheControl(CacheControl.noStore())
+                .body(body);
+    }
+    /**
+     * 自动保存草稿：只写内存，停止输入一段时间后合并写库
+     * @return 本次保存的时间
+     */
+    @PutMapping("/drafts")
+    public Result<LocalDateTime> saveDraft(@RequestHeader("Authorization") String authHeader,
+                                           @RequestBody ArticleDraftDTO draftDTO) {
+        return Result.ok(articleDraftService.saveDraft(getuserIdFromToken(authHeader), isAdmin(authHeader), draftDTO));
+    }
+    /**
+     * 获取草稿
+     * @param articleId 文章id，新文章不传
+     */
+    @GetMapping("/drafts")
+    public Result<ArticleDraftVO> getDraft(@RequestHeader("Authorization") String authHeader,
+                                           @RequestParam(value = "articleId", defaultValue = "0") Integer articleId) {
+        return Result.ok(articleDraftService.getDraft(getuserIdFromToken(authHeader), articleId));
+    }
+    /**
+     * 立即把草稿写入数据库（如离开编辑页时）
+     */
+    @PostMapping("/drafts/commit")
+    public Result<Boolean> commitDraft(@RequestHeader("Authorization") String authHeader,
+                                       @RequestParam(value = "articleId", defaultValue = "0") Integer articleId) {
+        return Result.ok(articleDraftService.commitDraft(getuserIdFromToken(authHeader), articleId));
+    }
+    /**
+     * 删除草稿（如文章已正式保存）
+     */
+    @DeleteMapping("/drafts")
+    public Result deleteDraft(@RequestHeader("Authorization") String authHeader,
+                              @RequestParam(value = "articleId", defaultValue = "0") Integer articleId) {
+        articleDraftService.deleteDraft(getuserIdFromToken(authHeader), articleId);
+        return Result.ok("草稿已删除");
+    }
+    /**
+     * 设置定时发布：文章先改为未发布，到期自动发布；重复设置视为改期（仅作者本人或管理员）
+     * @return 实际生效的发布时间（精确到秒）
+     */
+    @PutMapping("/{id}/schedule")
+    public Result<LocalDateTime> schedulePublish(@PathVariable("id") Integer id, @RequestBody SchedulePublishDTO scheduleDTO,
+                                                 @RequestHeader ("Authorization") String authorization){
+        return Result.ok(articlePublishScheduleService.schedule(id, scheduleDTO.getPublishTime(),
+                getuserIdFromToken(authorization), isAdmin(authorization)));
+    }
+    /**
+     * 取消定时发布，文章还原为设置计划前的发布状态（仅作者本人或管理员）
+     */
+    @DeleteMapping("/{id}/schedule")
+    public Result cancelSchedule(@PathVariable("id") Integer id,
+                                 @RequestHeader ("Authorization") String authorization){
+        if (!articlePublishScheduleService.unschedule(id, getuserIdFromToken(authorization), isAdmin(authorization))) {
+            return Result.error(404,"该文章没有定时发布计划");
         }
-
-        // 4. 在这里处理文章与分类的关联
-        ArticleCategories AC =new ArticleCategories();
-        articlesDTO.getCategoryId();
-        AC.setArticleId(article.getId())
-                .setCategoryId(articlesDTO.getCategoryId());
-
-        // 保存文章-分类数据
-        articleCategoriesService.save(AC);
-
-        System.out.println("文章的id是"+article.getId());
-        return Result.ok(article.getId());
+        return Result.ok("已取消定时发布");
     }
     //更新文章
     @PutMapping("/{id}")
     public  Result<Articles> updateArticles(@PathVariable("id") Integer id, @RequestBody CreatArticlesDTO articlesDTO){
-        ArticleCategories AC =new ArticleCategories();
-        //更新文章数据
-
+        //文章数据和分类、标签关联在同一个事务中按差异更新
         Articles A = articlesService.updateArticles(id, articlesDTO);
-
-        //更新文章-分类关系数据
-        AC.setCategoryId(articlesDTO.getCategoryId())
-                .setArticleId(id); // 使用传入的文章ID
-        articleCategoriesService.saveOrUpdate(AC);
-
-        //更新文章-标签关系数据
-        ArrayList<Integer> tagIds = articlesDTO.getTagIds();
-        List<ArticleTags> articleTagsList = new ArrayList<>();
-        for (Integer tagId : tagIds) {
-            ArticleTags articleTag = new ArticleTags();
-            articleTag.setArticleId(id) // 使用传入的文章ID
-                    .setTagId(tagId);
-            articleTagsList.add(articleTag);
-        }
-
-        articleTagsService.saveBatch(articleTagsList);
-
-        return Result.ok(articlesService.getById(A.getId()));
+        return Result.ok(A);
     }
     // 删除文章
     @DeleteMapping("/{id}")
@@ -202,20 +331,13 @@ public class ArticlesController {
     }
     //更新指定ID文章的点赞状态（点赞/取消点赞）
     @PutMapping("/{id}/like-status")
-    public Result<LikedVO> LikeCount(@PathVariable("id")Integer id,
-                                     @RequestBody boolean liked,
-                                     @RequestHeader ("Authorization") String authorization){
+    public Result<LikeVO> LikeCount(@PathVariable("id")Integer id,
+                                    @RequestBody boolean liked,
+                                    @RequestHeader ("Authorization") String authorization){
         //获取用户id
         Integer userId = getuserIdFromToken(authorization);
-        //执行更改点赞状态
-        Integer i = articlesService.LikeCount(id, liked);
-        LikedVO likedvo = new LikedVO();
-        likedvo.setLikes(i);
-        likedvo.setIsLiked(liked);
-        //在用户的文章点赞表中进行增减
-        articlesService.saveArticlesLikes(userId,id,liked);
-        //返回文章的点赞结果
-        return Result.ok(likedvo);
+        //点赞关系幂等写入，点赞数在内存中累加，返回最新点赞数
+        return Result.ok(likeService.likeArticle(userId,id,liked));
     }
 
     /**
@@ -232,6 +354,14 @@ public class ArticlesController {
         String userId = jwtUtil.getUserIdFromToken(token);
         return Integer.parseInt(userId);
     }
+    /**
+     * 请求头中的用户是否为管理员（角色1）
+     */
+    private boolean isAdmin(String authorization){
+        String token = authorization.substring(7).trim();
+        Integer role = jwtUtil.getRoleFromToken(token);
+        return role != null && role == 1;
+    }
     /**
      * 获取指定Id文章的当前用户点赞状态
      */
@@ -280,6 +410,39 @@ public class ArticlesController {
     public Result<ArticleShareVO> articleShare(@RequestBody Map<String, Object> requestBody){
         Integer articleId = (Integer) requestBody.get("articleId");
         String platform = (String) requestBody.get("platform");
-        return Result.ok(articlesService.articleShare(articleId, platform));
+        return Result.ok(articleShareService.share(articleId, platform));
+    }
+    /**
+     * 通过分享码打开文章，返回文章详情（读缓存）
+     */
+    @GetMapping("/share/{code}")
+    public ResponseEntity<Result<ArticleVO>> resolveShareCode(@PathVariable("code") String code, WebRequest request){
+        Integer id = shareCodeService.resolve(code);
+        return id == null ? ResponseEntity.ok(Result.error(404,"分享链接无效")) : getArticleById(id, request);
+    }
+    /**
+     * 获取指定ID文章的分平台分享统计
+     */
+    @GetMapping("/{id}/shares")
+    public Result<ArticleShareStatsVO> articleShareStats(@PathVariable(value = "id")Integer id){
+        return Result.ok(articleShareService.getShareStats(id));
+    }
+    /**
+     * 获取指定ID文章的修订历史（不含正文），新版本在前
+     */
+    @GetMapping("/{id}/revisions")
+    public Result<List<ArticleRevisionVO>> articleRevisions(@PathVariable(value = "id")Integer id,
+                                                            @RequestHeader ("Authorization") String authorization){
+        return Result.ok(articleRevisionService.listRevisions(id, getuserIdFromToken(authorization), isAdmin(authorization)));
+    }
+    /**
+     * 还原指定ID文章的某个历史版本
+     */
+    @GetMapping("/{id}/revisions/{revision}")
+    public Result<ArticleRevisionVO> articleRevision(@PathVariable(value = "id")Integer id,
+                                                     @PathVariable(value = "revision")Integer revision,
+                                                     @RequestHeader ("Authorization") String authorization){
+        return Result.ok(articleRevisionService.getRevision(id, revision,
+                getuserIdFromToken(authorization), isAdmin(authorization)));
     }
 }
@@ -4,13 +4,20 @@ package com.example.weijiahome.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.example.weijiahome.entity.po.Categories;
 import com.example.weijiahome.entity.po.Result;
+import com.example.weijiahome.event.TaxonomyChangedEvent;
 import com.example.weijiahome.service.IArticleCategoriesService;
 import com.example.weijiahome.service.ICategoriesService;
+import com.example.weijiahome.service.IContentVersionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -23,18 +30,32 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/categories")
 public class CategoriesController {
+    /**
+     * 分类列表很少变化，允许浏览器和代理缓存60秒，过期后用ETag确认
+     */
+    private static final CacheControl CACHE_60S = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
     @Autowired
     private ICategoriesService categoriesService;
     @Autowired
     private IArticleCategoriesService articleCategoriesService;
+    @Autowired
+    private IContentVersionService contentVersionService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取分类列表
      * @return
      */
     @GetMapping()
-    public Result<List<Categories>> getCategoriesList(){
-       return Result.ok(categoriesService.list());
+    public ResponseEntity<Result<List<Categories>>> getCategoriesList(WebRequest request){
+        //分类没有变化时直接返回304，不查库
+        String etag = contentVersionService.categoriesETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_60S).body(Result.cacheable(categoriesService.list()));
     }
 
     /**
@@ -55,6 +76,7 @@ public class CategoriesController {
         c.setName(name);
         c.setCreateTime(LocalDateTime.now());
         categoriesService.save(c);
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.CATEGORY));
         return Result.ok("分类创建成功");
     }
     /**
@@ -70,6 +92,7 @@ public class CategoriesController {
         if (!categoriesService.updateById(c)) {
             return Result.error(404,"更新分类失败");
         }
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.CATEGORY));
         return Result.ok("更新分类成功");
     }
     /**
@@ -83,6 +106,7 @@ public class CategoriesController {
         if ( !categoriesService.removeById(c)){
             return Result.error(404,"删除分类失败");
         }
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.CATEGORY));
         return Result.ok("删除分类成功");
     }
     /**
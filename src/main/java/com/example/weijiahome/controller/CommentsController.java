@@ -3,10 +3,13 @@ package com.example.weijiahome.controller;
 
 import com.example.weijiahome.entity.po.Comments;
 import com.example.weijiahome.entity.po.Result;
+import com.example.weijiahome.entity.vo.CommentRepliesVO;
+import com.example.weijiahome.entity.vo.CommentThreadPageVO;
 import com.example.weijiahome.entity.vo.CommentsListVO;
 import com.example.weijiahome.entity.vo.LikeVO;
 import com.example.weijiahome.entity.vo.SaveCommentVO;
 import com.example.weijiahome.service.ICommentsService;
+import com.example.weijiahome.service.ILikeService;
 import com.example.weijiahome.utils.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
@@ -25,6 +28,8 @@ public class CommentsController {
     @Autowired
     private ICommentsService commentsService;
     @Autowired
+    private ILikeService likeService;
+    @Autowired
     private JwtUtil jwtUtil;
     /**
      * 获取评论列表，支持分页和按文章筛选
@@ -42,6 +47,36 @@ public class CommentsController {
         Integer userId = getuserIdFromToken(authorization);
         return Result.ok(commentsService.getComments(userId,articleId,page,pageSize));
     }
+    /**
+     * 按讨论串获取评论：顶级评论从新到旧游标翻页，每个讨论串附带前几条回复、回复总数和加载更多回复的游标
+     * @param cursor 上一页返回的nextCursor
+     * @param limit 每页讨论串数
+     * @param replies 每个讨论串附带的回复数
+     */
+    @GetMapping("/threads")
+    public Result<CommentThreadPageVO> getThreads(
+            @RequestHeader("Authorization") String authorization,
+            @RequestParam Integer articleId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer limit,
+            @RequestParam(defaultValue = "3") Integer replies){
+        Integer userId = getuserIdFromToken(authorization);
+        return Result.ok(commentsService.getThreads(userId, articleId, cursor, limit, replies));
+    }
+    /**
+     * 加载更多回复
+     * @param id 顶级评论id
+     * @param cursor 讨论串的repliesCursor或上一批返回的nextCursor
+     */
+    @GetMapping("/{id}/replies")
+    public Result<CommentRepliesVO> getReplies(
+            @RequestHeader("Authorization") String authorization,
+            @PathVariable("id") Integer id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer limit){
+        Integer userId = getuserIdFromToken(authorization);
+        return Result.ok(commentsService.getReplies(userId, id, cursor, limit));
+    }
     //创建评论
     @PostMapping
     public Result<SaveCommentVO> saveComent(@RequestBody Comments comment,
@@ -67,7 +102,7 @@ public class CommentsController {
     public Result<LikeVO> likeComment(@PathVariable("id")Integer id,
                                       @RequestHeader("Authorization") String authorization){
         Integer userId = getuserIdFromToken(authorization);
-        return Result.ok(commentsService.likeComment(id,userId));
+        return Result.ok(likeService.toggleCommentLike(userId,id));
     }
     /**
      * 提取请求头中的用户id
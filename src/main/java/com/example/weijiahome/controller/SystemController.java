@@ -0,0 +1,28 @@
+package com.example.weijiahome.controller;
+
+import com.example.weijiahome.entity.po.Result;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * 系统运维接口（仅管理员可访问）
+ */
+@RestController
+@RequestMapping("/api/system")
+public class SystemController {
+    @Autowired
+    private IArticleDetailCacheService articleDetailCacheService;
+
+    /**
+     * 文章详情缓存的命中/未命中统计
+     */
+    @GetMapping("/cache/article-detail")
+    public Result<Map<String, Object>> articleDetailCacheStats() {
+        return Result.ok(articleDetailCacheService.stats());
+    }
+}
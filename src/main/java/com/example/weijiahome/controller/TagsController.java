@@ -9,12 +9,19 @@ import com.example.weijiahome.entity.po.Result;
 import com.example.weijiahome.entity.po.Tags;
 import com.example.weijiahome.entity.vo.TagsCountVO;
 import com.example.weijiahome.entity.vo.TagsListVO;
+import com.example.weijiahome.event.TaxonomyChangedEvent;
 import com.example.weijiahome.service.IArticleTagsService;
+import com.example.weijiahome.service.IContentVersionService;
 import com.example.weijiahome.service.ITagsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -27,10 +34,19 @@ import java.util.List;
 @RestController
 @RequestMapping("/api/tags")
 public class TagsController {
+    /**
+     * 标签列表很少变化，允许浏览器和代理缓存60秒，过期后用ETag确认
+     */
+    private static final CacheControl CACHE_60S = CacheControl.maxAge(60, TimeUnit.SECONDS).cachePublic();
+
     @Autowired
     private ITagsService tagsService;
     @Autowired
     private IArticleTagsService articleTagsService;
+    @Autowired
+    private IContentVersionService contentVersionService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * 获取所有标签列表
@@ -39,10 +55,15 @@ public class TagsController {
      * @return
      */
     @GetMapping()
-    public Result<Page<Tags>> getTags(@RequestParam(defaultValue = "1")Integer page,
-                                      @RequestParam(defaultValue = "10")Integer pageSize){
-
-        return Result.ok(tagsService.getTages(page,pageSize));
+    public ResponseEntity<Result<Page<Tags>>> getTags(@RequestParam(defaultValue = "1")Integer page,
+                                                      @RequestParam(defaultValue = "10")Integer pageSize,
+                                                      WebRequest request){
+        //标签没有变化时直接返回304，不查库
+        String etag = contentVersionService.tagsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_60S).body(Result.cacheable(tagsService.getTages(page,pageSize)));
     }
 
     /**
@@ -66,6 +87,7 @@ public class TagsController {
         if (!tagsService.save(tags)){
             return Result.badRequest("添加失败");
         }
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.TAG));
         return Result.ok(tags);
     }
 
@@ -81,6 +103,7 @@ public class TagsController {
         if (!tagsService.updateById(tags)){
             return  Result.badRequest("更新失败");
         }
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.TAG));
         return Result.ok(tags);
     }
 
@@ -94,6 +117,7 @@ public class TagsController {
         if (!tagsService.removeById(id)){
             return Result.badRequest("删除失败");
         }
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.TAG));
         return Result.ok("删除成功");
     }
     /**
@@ -110,22 +134,30 @@ public class TagsController {
      * 获取热门标签列表
      */
     @GetMapping("/popular")
-    public Result<List<Tags>> getPopular(@RequestParam(defaultValue = "10")Integer limit){
-        return Result.ok(tagsService.getPopular(limit));
+    public ResponseEntity<Result<List<Tags>>> getPopular(@RequestParam(defaultValue = "10")Integer limit, WebRequest request){
+        String etag = contentVersionService.tagsETag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CACHE_60S).body(Result.cacheable(tagsService.getPopular(limit)));
     }
     /**
      * 批量创建标签
      */
     @PostMapping("/batch")
     public TagsListVO listSaveTags(@RequestBody TagsListDTO tagsListDTO){
-        return tagsService.listSaveTags(tagsListDTO);
+        TagsListVO tagsListVO = tagsService.listSaveTags(tagsListDTO);
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.TAG));
+        return tagsListVO;
     }
     /**
      * 批量删除标签
      */
     @DeleteMapping("/batch")
     public Result<Integer> listDeletTags(@RequestBody BatchDeleteTagsDTO batchDeleteTagsDTO){
-        return Result.ok(tagsService.listDeletTags(batchDeleteTagsDTO));
+        Integer deleted = tagsService.listDeletTags(batchDeleteTagsDTO);
+        eventPublisher.publishEvent(new TaxonomyChangedEvent(this, TaxonomyChangedEvent.Type.TAG));
+        return Result.ok(deleted);
     }
     /**
      * 根据关键字搜索标签
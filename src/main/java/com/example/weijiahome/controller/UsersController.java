@@ -71,12 +71,13 @@ public class UsersController {
         }
     }
     @PutMapping("/me")
-    public Result putMe(@RequestBody Users user){
-        if (usersService.lambdaUpdate().update(user) != true){
+    public Result putMe(@RequestHeader("Authorization") String authorization, @RequestBody Users user){
+        Integer userId = getuserIdFromToken(authorization);
+        if (!usersService.updateProfile(userId, user)){
             return Result.badRequest("用户信息更新失败");
         }
 
-        return Result.ok(usersService.getById(user.getId()));
+        return Result.ok(usersService.getById(userId));
     }
     @PutMapping("/me/password")
     public Result updatePassword(@RequestHeader("Authorization") String authorization,@RequestBody UsersDTO usersDTO){
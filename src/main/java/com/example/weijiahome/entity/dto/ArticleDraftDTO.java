@@ -0,0 +1,19 @@
+package com.example.weijiahome.entity.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 编辑器自动保存的草稿内容
+ */
+@Data
+public class ArticleDraftDTO {
+    private Integer articleId; //文章ID，新文章不传或传0
+    private String title; //文章标题
+    private String content; //文章内容
+    private String summary; //文章摘要
+    private String coverImage; //封面图
+    private Integer categoryId; //分类ID
+    private List<Integer> tagIds; //标签ID数组
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.Accessors;
 
+import java.util.List;
+
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Accessors(chain = true)
@@ -28,6 +30,14 @@ public class GetArticlesDTO {
      * 标签id(可选)
      */
     private Integer tagId;
+    /**
+     * 多个标签id（可选，逗号分隔），与tagId合并使用
+     */
+    private List<Integer> tagIds;
+    /**
+     * 多标签匹配方式：all（默认，需包含全部标签）或 any（包含任一标签）
+     */
+    private String tagMode;
     /**
      * 排序方式
      */
@@ -36,5 +46,25 @@ public class GetArticlesDTO {
      * 排序顺序
      */
     private String order;
+    /**
+     * 游标（可选，传入上一页返回的nextCursor即按keyset方式翻页，此时忽略page）
+     */
+    private String cursor;
     private Integer offset;
+    /**
+     * 以下字段由服务端根据sort/order/cursor解析后填充，前端传入的值会被覆盖
+     */
+    private String sortColumn;
+    private String sortOrder;
+    private Object cursorValue;
+    private Integer cursorId;
+    /**
+     * 合并后的标签筛选条件
+     */
+    private List<Integer> filterTagIds;
+    private Boolean tagMatchAll;
+    /**
+     * 由分类/标签索引求出的文章id；为空时按分类/标签在SQL中筛选
+     */
+    private List<Integer> filterIds;
 }
\ No newline at end of file
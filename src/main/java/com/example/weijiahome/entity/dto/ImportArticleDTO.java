@@ -0,0 +1,22 @@
+package com.example.weijiahome.entity.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量导入时的一篇文章（NDJSON的一行，或Markdown文件的front matter+正文）
+ */
+@Data
+public class ImportArticleDTO {
+    private String title; //文章标题
+    private String content; //文章内容
+    private String summary; //文章摘要
+    private String coverImage; //封面图
+    private Integer categoryId; //分类ID，与category二选一
+    private String category; //分类名称
+    private List<String> tags; //标签名称，不存在的标签会自动创建
+    private Integer status; //文章状态，默认1（已发布）
+    private LocalDateTime createTime; //原始发布时间，默认导入时间
+}
@@ -0,0 +1,13 @@
+package com.example.weijiahome.entity.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 定时发布请求
+ */
+@Data
+public class SchedulePublishDTO {
+    private LocalDateTime publishTime; //计划发布时间，必须晚于当前时间
+}
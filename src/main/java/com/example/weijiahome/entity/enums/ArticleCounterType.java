@@ -0,0 +1,45 @@
+package com.example.weijiahome.entity.enums;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 文章表上由内存缓冲、定时批量落库的计数列
+ */
+public enum ArticleCounterType {
+    VIEW("view_count", ArticleVO::getViewCount, ArticleVO::setViewCount),
+    LIKE("like_count", ArticleVO::getLikeCount, ArticleVO::setLikeCount),
+    SHARE("share_count", ArticleVO::getShareCount, ArticleVO::setShareCount),
+    COMMENT("comment_count", ArticleVO::getCommentCount, ArticleVO::setCommentCount);
+
+    /**
+     * 对应的数据库列（只在批量更新语句中使用，值来自这里的常量）
+     */
+    private final String column;
+    private final Function<ArticleVO, Integer> getter;
+    private final BiConsumer<ArticleVO, Integer> setter;
+
+    ArticleCounterType(String column, Function<ArticleVO, Integer> getter, BiConsumer<ArticleVO, Integer> setter) {
+        this.column = column;
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * 在文章VO的对应计数上累加delta
+     */
+    public void addTo(ArticleVO article, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Integer current = getter.apply(article);
+        long value = (current == null ? 0 : current) + delta;
+        setter.accept(article, (int) Math.max(0, value));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.weijiahome.entity.enums;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * 文章列表支持的排序字段
+ * 前端传入的排序名（列名或驼峰属性名）只能映射到这里列出的列，其余一律按创建时间排序
+ * 最新、点赞最多、浏览最多、评论最多另有内存排序索引，见 IArticleSortIndexService
+ */
+public enum ArticleSortField {
+    CREATE_TIME("create_time", article -> timeOrDefault(article.getCreatedAt()),
+            "create_time", "createTime", "createdAt", "newest"),
+    UPDATE_TIME("update_time",
+            article -> timeOrDefault(article.getUpdatedAt() != null ? article.getUpdatedAt() : article.getCreatedAt()),
+            "update_time", "updateTime", "updatedAt"),
+    VIEW_COUNT("view_count", article -> nullToZero(article.getViewCount()),
+            "view_count", "viewCount", "mostViewed"),
+    LIKE_COUNT("like_count", article -> nullToZero(article.getLikeCount()),
+            "like_count", "likeCount", "mostLiked"),
+    COMMENT_COUNT("comment_count", article -> nullToZero(article.getCommentCount()),
+            "comment_count", "commentCount", "mostCommented");
+
+    /**
+     * 时间列缺失时的排序键，保证游标里总能写出可解析的时间（排序列已是 NOT NULL，正常不会用到）
+     */
+    private static final LocalDateTime MISSING_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    /**
+     * 拼进 ORDER BY 的列名（列为 NOT NULL 且有 (列, id) 联合索引，见 sql/article_sort_indexes.sql）
+     */
+    private final String column;
+    /**
+     * 从一行结果中取出排序键，用于生成下一页游标
+     */
+    private final Function<ArticleVO, Object> extractor;
+    /**
+     * 可接受的排序名
+     */
+    private final String[] aliases;
+
+    ArticleSortField(String column, Function<ArticleVO, Object> extractor, String... aliases) {
+        this.column = column;
+        this.extractor = extractor;
+        this.aliases = aliases;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Object valueOf(ArticleVO article) {
+        return extractor.apply(article);
+    }
+
+    /**
+     * 排序键是否为时间类型（决定游标里的值如何解析）
+     */
+    public boolean isTime() {
+        return this == CREATE_TIME || this == UPDATE_TIME;
+    }
+
+    /**
+     * 把游标中的字符串还原成SQL参数
+     */
+    public Object parseValue(String value) {
+        return isTime() ? LocalDateTime.parse(value) : Long.valueOf(value);
+    }
+
+    /**
+     * 根据前端传入的排序名解析排序字段，不认识的名字按创建时间排序
+     */
+    public static ArticleSortField of(String sort) {
+        if (sort == null) {
+            return CREATE_TIME;
+        }
+        for (ArticleSortField field : values()) {
+            if (field.name().equalsIgnoreCase(sort)) {
+                return field;
+            }
+            for (String alias : field.aliases) {
+                if (alias.equalsIgnoreCase(sort)) {
+                    return field;
+                }
+            }
+        }
+        return CREATE_TIME;
+    }
+
+    private static Object timeOrDefault(LocalDateTime time) {
+        return time == null ? MISSING_TIME : time;
+    }
+
+    private static Object nullToZero(Integer value) {
+        return value == null ? 0L : value.longValue();
+    }
+}
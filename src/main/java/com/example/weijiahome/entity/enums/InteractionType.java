@@ -0,0 +1,19 @@
+package com.example.weijiahome.entity.enums;
+
+/**
+ * 用户对内容的互动类型，每种类型按目标id维护一份用户集合
+ */
+public enum InteractionType {
+    /**
+     * 文章点赞，目标为文章id
+     */
+    ARTICLE_LIKE,
+    /**
+     * 文章收藏，目标为文章id
+     */
+    ARTICLE_FAVORITE,
+    /**
+     * 评论点赞，目标为评论id
+     */
+    COMMENT_LIKE
+}
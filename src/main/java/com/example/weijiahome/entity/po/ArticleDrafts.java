@@ -0,0 +1,25 @@
+package com.example.weijiahome.entity.po;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章草稿，主键为(作者id, 文章id)
+ */
+@Data
+@Accessors(chain = true)
+@TableName("article_drafts")
+public class ArticleDrafts {
+    private Integer authorId;
+    private Integer articleId; // 0表示尚未创建的新文章
+    private String title;
+    private String content;
+    private String summary;
+    private String coverImage;
+    private Integer categoryId;
+    private String tagIds; // 逗号分隔的标签id
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,23 @@
+package com.example.weijiahome.entity.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章定时发布计划
+ */
+@Data
+@Accessors(chain = true)
+@TableName("article_publish_schedule")
+public class ArticlePublishSchedule {
+    @TableId(value = "article_id", type = IdType.INPUT)
+    private Integer articleId;
+    private LocalDateTime publishTime; // 计划发布时间（精确到秒）
+    private Integer previousStatus; // 设置计划前的发布状态，取消时还原
+    private LocalDateTime previousPublishTime; // 设置计划前的发布时间，取消时还原
+}
@@ -0,0 +1,28 @@
+package com.example.weijiahome.entity.po;
+
+import com.baomidou.mybatisplus.annotation.IdType;
+import com.baomidou.mybatisplus.annotation.TableId;
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章修订历史：全文快照或与上一版本的差异
+ */
+@Data
+@Accessors(chain = true)
+@TableName("article_revisions")
+public class ArticleRevisions {
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+    private Integer articleId;
+    private Integer revision; // 版本号，从1开始
+    private Boolean snapshot; // true=全文快照，false=与上一版本的差异
+    private String title;
+    private byte[] data; // gzip压缩的全文或差异
+    private Integer contentLength; // 该版本正文的字符数
+    private String contentHash; // 该版本正文的MD5，用于判断正文是否被绕过修订服务改过
+    private LocalDateTime createTime;
+}
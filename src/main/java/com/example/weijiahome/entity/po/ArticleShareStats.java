@@ -0,0 +1,17 @@
+package com.example.weijiahome.entity.po;
+
+import com.baomidou.mybatisplus.annotation.TableName;
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+/**
+ * 文章分平台分享次数
+ */
+@Data
+@Accessors(chain = true)
+@TableName("article_share_stats")
+public class ArticleShareStats {
+    private Integer articleId;
+    private String platform; // 分享平台（已规范化为小写）
+    private Long shareCount;
+}
@@ -51,6 +51,21 @@ public class Comments implements Serializable {
      */
     private Integer parentId;
 
+    /**
+     * 所在讨论串的顶级评论ID，顶级评论为自身ID
+     */
+    private Integer rootId;
+
+    /**
+     * 物化路径：从顶级评论到本评论的各级ID（10位补零）用"."连接，按它排序即为楼中楼的先序遍历顺序
+     */
+    private String path;
+
+    /**
+     * 顶级评论下的回复总数（只在顶级评论上维护）
+     */
+    private Integer replyCount;
+
     /**
      * 点赞次数
      */
@@ -1,5 +1,6 @@
 package com.example.weijiahome.entity.po;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Data;
 
 import java.time.LocalDateTime;
@@ -21,7 +22,8 @@ public class Result<T> {
     // 响应数据
     private T data;
 
-    // 响应时间
+    // 响应时间（可缓存的响应不带时间，相同数据序列化结果相同）
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private LocalDateTime timestamp;
 
     // 私有构造方法，防止直接实例化
@@ -55,6 +57,15 @@ public class Result<T> {
         return success(200, "请求成功", data);
     }
 
+    /**
+     * 可缓存的成功响应 - 200 OK，不带响应时间，配合ETag做条件请求
+     */
+    public static <T> Result<T> cacheable(T data) {
+        Result<T> result = ok(data);
+        result.setTimestamp(null);
+        return result;
+    }
+
     /**
      * 成功响应快捷方法 - 201 Created
      */
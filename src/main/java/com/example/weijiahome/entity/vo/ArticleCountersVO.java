@@ -0,0 +1,15 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+/**
+ * 文章的实时计数（含尚未落库的增量），不参与列表、详情的ETag
+ */
+@Data
+public class ArticleCountersVO {
+    private Integer id;
+    private Integer viewCount;
+    private Integer likeCount;
+    private Integer commentCount;
+    private Integer shareCount;
+}
@@ -0,0 +1,22 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 文章草稿
+ */
+@Data
+public class ArticleDraftVO {
+    private Integer articleId; // 0表示新文章
+    private String title;
+    private String content;
+    private String summary;
+    private String coverImage;
+    private Integer categoryId;
+    private List<Integer> tagIds;
+    private LocalDateTime updateTime; // 最后一次保存的时间
+    private Boolean persisted; // 是否已写入数据库（false表示还在内存中等待合并写入）
+}
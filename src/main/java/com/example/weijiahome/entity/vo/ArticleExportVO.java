@@ -0,0 +1,31 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 全量导出的一篇文章（NDJSON的一行）
+ * title/content/summary/coverImage/categoryId/category/tags/status/createTime 与导入格式一致，可直接重新导入
+ */
+@Data
+public class ArticleExportVO {
+    private Integer id;
+    private String title;
+    private String content;
+    private String summary;
+    private String coverImage;
+    private Integer status;
+    private Integer authorId;
+    private Integer categoryId;
+    private String category; // 分类名称
+    private List<String> tags; // 标签名称
+    private Integer viewCount; // 计数均已包含内存中尚未落库的增量
+    private Integer likeCount;
+    private Integer commentCount;
+    private Integer shareCount;
+    private LocalDateTime createTime;
+    private LocalDateTime updateTime;
+    private LocalDateTime publishTime;
+}
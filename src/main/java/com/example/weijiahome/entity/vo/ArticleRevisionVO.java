@@ -0,0 +1,21 @@
+package com.example.weijiahome.entity.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章的一个历史版本
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ArticleRevisionVO {
+    private Integer revision;
+    private String title;
+    private Boolean snapshot; // 是否存为全文快照
+    private Integer contentLength; // 正文字符数
+    private Integer storedBytes; // 实际占用的存储字节数
+    private LocalDateTime createTime;
+    private String content; // 只在查询单个版本时返回
+}
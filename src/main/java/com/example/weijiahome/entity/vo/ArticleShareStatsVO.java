@@ -0,0 +1,15 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * 文章分享次数统计
+ */
+@Data
+public class ArticleShareStatsVO {
+    private Integer articleId;
+    private Long total; // 总分享次数
+    private Map<String, Long> platforms; // 平台 -> 分享次数，按次数从高到低
+}
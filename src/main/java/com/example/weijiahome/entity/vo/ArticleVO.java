@@ -42,6 +42,11 @@ public class ArticleVO {
      */
     private Integer likeCount;
 
+    /**
+     * 分享次数
+     */
+    private Integer shareCount;
+
     /**
      * 创建时间
      */
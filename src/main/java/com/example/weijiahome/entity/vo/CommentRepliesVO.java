@@ -0,0 +1,17 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 一个讨论串中继续加载的回复
+ */
+@Data
+public class CommentRepliesVO {
+    private List<CommentsLikeVO> replies;
+    /**
+     * 下一批回复的游标，没有更多时为空
+     */
+    private String nextCursor;
+}
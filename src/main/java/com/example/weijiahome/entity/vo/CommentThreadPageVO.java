@@ -0,0 +1,17 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 讨论串列表的一页（按顶级评论从新到旧）
+ */
+@Data
+public class CommentThreadPageVO {
+    private List<CommentThreadVO> threads;
+    /**
+     * 下一页游标，没有更多时为空
+     */
+    private String nextCursor;
+}
@@ -0,0 +1,22 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 一个讨论串：顶级评论 + 前若干条回复（按楼中楼顺序，回复的层级由 parentId 表示）
+ */
+@Data
+public class CommentThreadVO {
+    private CommentsLikeVO comment;
+    private List<CommentsLikeVO> replies;
+    /**
+     * 回复总数
+     */
+    private Integer replyCount;
+    /**
+     * 加载更多回复的游标，没有更多回复时为null（空串表示从第一条回复开始）
+     */
+    private String repliesCursor;
+}
@@ -0,0 +1,33 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量导入结果
+ */
+@Data
+public class ImportReportVO {
+    private String format; // ndjson / markdown-zip
+    private Integer total = 0; // 读到的记录数
+    private Integer succeeded = 0; // 导入成功数
+    private Integer failed = 0; // 导入失败数
+    private Integer createdTags = 0; // 自动创建的标签数
+    private Long elapsedMs; // 耗时（毫秒）
+    private Long recordsPerSecond; // 吞吐量（条/秒）
+    private List<RecordError> errors = new ArrayList<>(); // 失败记录，最多保留前1000条
+    private Boolean errorsTruncated = false; // 失败记录是否超出上限被截断
+
+    @Data
+    public static class RecordError {
+        private String record; // NDJSON为行号，Markdown为文件名
+        private String message;
+
+        public RecordError(String record, String message) {
+            this.record = record;
+            this.message = message;
+        }
+    }
+}
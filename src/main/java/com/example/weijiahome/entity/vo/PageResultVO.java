@@ -8,4 +8,5 @@ import java.util.List;
 public class PageResultVO<T> {
     private List<T> records;    // 数据列表
     private PaginationVO pagination; // 分页信息
+    private String nextCursor;  // 下一页游标，没有下一页时为null
 }
@@ -0,0 +1,27 @@
+package com.example.weijiahome.entity.vo;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 当前用户对一批文章、作者的互动状态（列表页一次取回）
+ */
+@Data
+public class ViewerStateVO {
+    /**
+     * 文章id -> 点赞、收藏状态
+     */
+    private Map<Integer, ArticleState> articles = new LinkedHashMap<>();
+    /**
+     * 作者id -> 是否已关注
+     */
+    private Map<Integer, Boolean> following = new LinkedHashMap<>();
+
+    @Data
+    public static class ArticleState {
+        private Boolean liked;
+        private Boolean favorited;
+    }
+}
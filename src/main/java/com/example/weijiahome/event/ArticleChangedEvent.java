@@ -0,0 +1,34 @@
+package com.example.weijiahome.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 文章变更事件
+ * 文章新增、修改、删除、发布状态变化时由文章服务发布，各类缓存和索引监听它来失效或增量更新
+ */
+public class ArticleChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        PUBLISH_CHANGED
+    }
+
+    private final Integer articleId;
+    private final Type type;
+
+    public ArticleChangedEvent(Object source, Integer articleId, Type type) {
+        super(source);
+        this.articleId = articleId;
+        this.type = type;
+    }
+
+    public Integer getArticleId() {
+        return articleId;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
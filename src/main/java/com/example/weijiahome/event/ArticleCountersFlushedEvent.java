@@ -0,0 +1,49 @@
+package com.example.weijiahome.event;
+
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+/**
+ * 计数增量已批量写入数据库
+ * 缓存了计数值的数据监听它，把已落库的增量合并进缓存
+ */
+public class ArticleCountersFlushedEvent extends ApplicationEvent {
+
+    private final ArticleCounterType type;
+    /**
+     * 文章id -> 本次写入的增量
+     */
+    private final Map<Integer, Long> deltas;
+    /**
+     * 写库开始前、提交后的计数写库序号（见 IArticleCounterService.flushSequence）
+     */
+    private final long startSequence;
+    private final long endSequence;
+
+    public ArticleCountersFlushedEvent(Object source, ArticleCounterType type, Map<Integer, Long> deltas,
+                                       long startSequence, long endSequence) {
+        super(source);
+        this.type = type;
+        this.deltas = deltas;
+        this.startSequence = startSequence;
+        this.endSequence = endSequence;
+    }
+
+    public ArticleCounterType getType() {
+        return type;
+    }
+
+    public Map<Integer, Long> getDeltas() {
+        return deltas;
+    }
+
+    public long getStartSequence() {
+        return startSequence;
+    }
+
+    public long getEndSequence() {
+        return endSequence;
+    }
+}
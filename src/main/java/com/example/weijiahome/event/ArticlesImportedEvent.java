@@ -0,0 +1,24 @@
+package com.example.weijiahome.event;
+
+import com.example.weijiahome.entity.po.Articles;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.List;
+
+/**
+ * 批量导入事件
+ * 每个提交成功的导入批次发布一次，携带已写入（id已回填）的文章，各类缓存和索引按批更新，不逐篇查库
+ */
+public class ArticlesImportedEvent extends ApplicationEvent {
+
+    private final List<Articles> articles;
+
+    public ArticlesImportedEvent(Object source, List<Articles> articles) {
+        super(source);
+        this.articles = articles;
+    }
+
+    public List<Articles> getArticles() {
+        return articles;
+    }
+}
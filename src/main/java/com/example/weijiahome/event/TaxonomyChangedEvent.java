@@ -0,0 +1,26 @@
+package com.example.weijiahome.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 分类或标签变更事件（新增、改名、删除）
+ * 缓存了分类名、标签名的数据（内容版本、文章详情、热门文章）监听它来失效
+ */
+public class TaxonomyChangedEvent extends ApplicationEvent {
+
+    public enum Type {
+        CATEGORY,
+        TAG
+    }
+
+    private final Type type;
+
+    public TaxonomyChangedEvent(Object source, Type type) {
+        super(source);
+        this.type = type;
+    }
+
+    public Type getType() {
+        return type;
+    }
+}
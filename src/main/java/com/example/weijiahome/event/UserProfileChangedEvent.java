@@ -0,0 +1,21 @@
+package com.example.weijiahome.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 用户资料变更事件（用户名、头像、简介等）
+ * 缓存了作者信息的数据监听它来失效
+ */
+public class UserProfileChangedEvent extends ApplicationEvent {
+
+    private final Integer userId;
+
+    public UserProfileChangedEvent(Object source, Integer userId) {
+        super(source);
+        this.userId = userId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+}
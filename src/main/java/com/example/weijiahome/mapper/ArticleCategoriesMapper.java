@@ -4,8 +4,11 @@ import com.example.weijiahome.entity.po.ArticleCategories;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.weijiahome.entity.po.Categories;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.List;
+
 /**
  * <p>
  * 文章分类关联表 Mapper 接口
@@ -18,4 +21,9 @@ import org.apache.ibatis.annotations.Select;
 public interface ArticleCategoriesMapper extends BaseMapper<ArticleCategories> {
 @Select("select category_id from blog.article_categories where article_id =#{id}")
     Integer selectByArticleId(Integer id);
+
+    /**
+     * 一条多值INSERT写入多篇文章的分类关联
+     */
+    int insertBatch(@Param("relations") List<ArticleCategories> relations);
 }
@@ -0,0 +1,17 @@
+package com.example.weijiahome.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.weijiahome.entity.po.ArticleDrafts;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface ArticleDraftsMapper extends BaseMapper<ArticleDrafts> {
+
+    /**
+     * 批量写入草稿，已存在时覆盖
+     */
+    int upsertBatch(@Param("drafts") List<ArticleDrafts> drafts);
+}
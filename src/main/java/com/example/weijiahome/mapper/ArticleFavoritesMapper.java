@@ -7,6 +7,8 @@ import com.example.weijiahome.entity.po.ArticleCategories;
 import com.example.weijiahome.entity.po.ArticleFavorites;
 import com.example.weijiahome.entity.vo.favorites.UserFavoritesVO;
 import com.example.weijiahome.service.impl.ArticleFavoritesServiceImpl;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -15,4 +17,18 @@ public interface ArticleFavoritesMapper  extends BaseMapper<ArticleFavorites> {
     IPage<UserFavoritesVO> selectUserFavoritesPage( Page<UserFavoritesVO> page,
                                                     @Param("userId") Integer userId);
     Integer countUserFavorites(@Param("userId") Integer userId); // 新增总数查询方法
+
+    /**
+     * 收藏，依赖(user_id, article_id)唯一索引，已收藏时不插入
+     * @return 1表示新收藏，0表示之前已收藏
+     */
+    @Insert("insert ignore into blog.article_favorites(user_id, article_id, created_at) values(#{userId}, #{articleId}, now())")
+    int insertIgnore(@Param("userId") Integer userId, @Param("articleId") Integer articleId);
+
+    /**
+     * 取消收藏
+     * @return 1表示取消成功，0表示本来就没收藏
+     */
+    @Delete("delete from blog.article_favorites where user_id = #{userId} and article_id = #{articleId}")
+    int deleteFavorite(@Param("userId") Integer userId, @Param("articleId") Integer articleId);
 }
@@ -5,10 +5,26 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.example.weijiahome.entity.po.ArticleLikes;
 import com.example.weijiahome.entity.po.Articles;
 import com.example.weijiahome.entity.vo.ArticleLikeListVO;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface ArticleLikesMapper extends BaseMapper<ArticleLikes> {
     IPage<ArticleLikeListVO> userLikeArticles(IPage<ArticleLikeListVO> likeListVOIPage, @Param("userId") Integer userId);
+
+    /**
+     * 点赞，依赖(user_id, article_id)唯一索引，已点过赞时不插入
+     * @return 1表示新点赞，0表示之前已点过
+     */
+    @Insert("insert ignore into blog.article_likes(user_id, article_id, created_at) values(#{userId}, #{articleId}, now())")
+    int insertIgnore(@Param("userId") Integer userId, @Param("articleId") Integer articleId);
+
+    /**
+     * 取消点赞
+     * @return 1表示取消成功，0表示本来就没点赞
+     */
+    @Delete("delete from blog.article_likes where user_id = #{userId} and article_id = #{articleId}")
+    int deleteLike(@Param("userId") Integer userId, @Param("articleId") Integer articleId);
 }
@@ -0,0 +1,31 @@
+package com.example.weijiahome.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.weijiahome.entity.po.ArticlePublishSchedule;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+
+@Mapper
+public interface ArticlePublishScheduleMapper extends BaseMapper<ArticlePublishSchedule> {
+
+    /**
+     * 设置（或改期）文章的发布计划；改期时保留第一次设置前的状态
+     */
+    @Insert("insert into blog.article_publish_schedule(article_id, publish_time, previous_status, previous_publish_time) " +
+            "values (#{articleId}, #{publishTime}, #{previousStatus}, #{previousPublishTime}) " +
+            "on duplicate key update publish_time = values(publish_time)")
+    int upsert(@Param("articleId") Integer articleId, @Param("publishTime") LocalDateTime publishTime,
+               @Param("previousStatus") Integer previousStatus,
+               @Param("previousPublishTime") LocalDateTime previousPublishTime);
+
+    /**
+     * 认领到期的发布计划：只有计划未被改期、取消或被其他节点认领时才删除成功
+     * @return 1表示由当前节点负责发布
+     */
+    @Delete("delete from blog.article_publish_schedule where article_id = #{articleId} and publish_time = #{publishTime}")
+    int claim(@Param("articleId") Integer articleId, @Param("publishTime") LocalDateTime publishTime);
+}
@@ -0,0 +1,43 @@
+package com.example.weijiahome.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.weijiahome.entity.po.ArticleRevisions;
+import com.example.weijiahome.entity.vo.ArticleRevisionVO;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+@Mapper
+public interface ArticleRevisionsMapper extends BaseMapper<ArticleRevisions> {
+
+    /**
+     * 文章的全部版本（不含数据），新版本在前
+     */
+    @Select("select revision, title, snapshot, content_length, length(data) as stored_bytes, create_time " +
+            "from blog.article_revisions where article_id = #{articleId} order by revision desc")
+    List<ArticleRevisionVO> listRevisions(@Param("articleId") Integer articleId);
+
+    /**
+     * 文章最新的一个版本（不含数据）
+     */
+    @Select("select revision, snapshot, content_length, content_hash from blog.article_revisions " +
+            "where article_id = #{articleId} order by revision desc limit 1")
+    ArticleRevisions selectLatest(@Param("articleId") Integer articleId);
+
+    /**
+     * 还原指定版本需要的记录：不晚于该版本的最近一个快照，到该版本为止，按版本号升序
+     */
+    @Select("select revision, snapshot, title, data from blog.article_revisions " +
+            "where article_id = #{articleId} and revision <= #{revision} and revision >= (" +
+            "  select max(revision) from blog.article_revisions " +
+            "  where article_id = #{articleId} and revision <= #{revision} and snapshot = 1) " +
+            "order by revision")
+    List<ArticleRevisions> selectChain(@Param("articleId") Integer articleId, @Param("revision") Integer revision);
+
+    /**
+     * 批量写入版本记录
+     */
+    int insertBatch(@Param("revisions") List<ArticleRevisions> revisions);
+}
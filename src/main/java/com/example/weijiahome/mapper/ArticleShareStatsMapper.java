@@ -0,0 +1,18 @@
+package com.example.weijiahome.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.example.weijiahome.entity.po.ArticleShareStats;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+@Mapper
+public interface ArticleShareStatsMapper extends BaseMapper<ArticleShareStats> {
+
+    /**
+     * 批量累加分平台分享次数，没有记录时插入
+     * @param stats shareCount 为本次增量
+     */
+    int upsertDeltas(@Param("stats") List<ArticleShareStats> stats);
+}
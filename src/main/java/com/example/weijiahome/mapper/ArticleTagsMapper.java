@@ -3,6 +3,10 @@ package com.example.weijiahome.mapper;
 import com.example.weijiahome.entity.po.ArticleTags;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -15,4 +19,19 @@ import org.apache.ibatis.annotations.Mapper;
 @Mapper
 public interface ArticleTagsMapper extends BaseMapper<ArticleTags> {
 
+    /**
+     * 一条多值INSERT写入文章的多个标签
+     */
+    int insertTags(@Param("articleId") Integer articleId, @Param("tagIds") Collection<Integer> tagIds);
+
+    /**
+     * 删除文章的指定标签（含重复行）
+     */
+    int deleteTags(@Param("articleId") Integer articleId, @Param("tagIds") Collection<Integer> tagIds);
+
+    /**
+     * 一条多值INSERT写入多篇文章的标签关联
+     */
+    int insertBatch(@Param("relations") List<ArticleTags> relations);
+
 }
@@ -5,9 +5,17 @@ import com.example.weijiahome.entity.po.Articles;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.weijiahome.entity.vo.ArticleVO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.mapping.ResultSetType;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -21,6 +29,101 @@ import java.util.List;
 public interface ArticlesMapper extends BaseMapper<Articles> {
 
     List<ArticleVO> getArticles(GetArticlesDTO articlesDTO);
-    @Select("select count(*) from blog.articles")
-    Integer totalCount();
+
+    /**
+     * 按列表筛选条件统计总数（与getArticles共用筛选条件）
+     */
+    Integer countArticles(GetArticlesDTO articlesDTO);
+
+    /**
+     * 按id批量查询列表字段（结果顺序不保证，调用方自行排序）
+     */
+    List<ArticleVO> getArticlesByIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * 按id顺序分批读取检索需要的字段，用于建全文索引
+     */
+    @Select("select id, title, summary, content from blog.articles where id > #{afterId} order by id limit #{limit}")
+    List<Articles> selectForIndex(@Param("afterId") Integer afterId, @Param("limit") Integer limit);
+
+    /**
+     * 按id顺序分批读取已发布文章的文本字段，用于计算相关文章签名
+     */
+    @Select("select id, title, summary, content from blog.articles where id > #{afterId} and status = 1 order by id limit #{limit}")
+    List<Articles> selectPublishedForIndex(@Param("afterId") Integer afterId, @Param("limit") Integer limit);
+
+    /**
+     * 按id顺序分批读取列表排序用到的字段，用于建排序索引
+     */
+    @Select("select id, view_count, like_count, comment_count, create_time " +
+            "from blog.articles where id > #{afterId} order by id limit #{limit}")
+    List<Articles> selectForSortIndex(@Param("afterId") Integer afterId, @Param("limit") Integer limit);
+
+    /**
+     * 按id顺序分批读取已发布文章的计数和时间，用于初始化热度排行
+     */
+    @Select("select id, status, view_count, like_count, comment_count, share_count, create_time, publish_time " +
+            "from blog.articles where id > #{afterId} and status = 1 order by id limit #{limit}")
+    List<Articles> selectForRanking(@Param("afterId") Integer afterId, @Param("limit") Integer limit);
+
+    /**
+     * 批量累加计数列，一条语句更新多行
+     * @param column 计数列名，只能传 ArticleCounterType 中定义的列
+     * @param deltas 文章id -> 增量
+     */
+    int addCounterDeltas(@Param("column") String column, @Param("deltas") Map<Integer, Long> deltas);
+
+    /**
+     * 只读一篇文章已落库的评论数，文章不存在时返回null
+     */
+    @Select("select comment_count from blog.articles where id = #{id}")
+    Integer selectCommentCount(@Param("id") Integer id);
+
+    /**
+     * 加锁读取文章，修改文章时用来拿到修改前的内容
+     */
+    @Select("select * from blog.articles where id = #{id} for update")
+    Articles selectForUpdate(@Param("id") Integer id);
+
+    /**
+     * 设置定时发布：到期前文章为未发布状态
+     */
+    @Update("update blog.articles set status = 0, publish_time = #{publishTime} where id = #{id}")
+    int markScheduled(@Param("id") Integer id, @Param("publishTime") LocalDateTime publishTime);
+
+    /**
+     * 取消定时发布：还原设置计划前的发布状态和发布时间，旧计划没有记录时保持原值
+     */
+    @Update("update blog.articles set status = coalesce(#{status}, status), " +
+            "publish_time = coalesce(#{publishTime}, publish_time) where id = #{id}")
+    int restorePublishState(@Param("id") Integer id, @Param("status") Integer status,
+                            @Param("publishTime") LocalDateTime publishTime);
+
+    /**
+     * 定时发布到期，把文章改为已发布
+     */
+    @Update("update blog.articles set status = 1, publish_time = #{publishTime} where id = #{id}")
+    int publishAt(@Param("id") Integer id, @Param("publishTime") LocalDateTime publishTime);
+
+    /**
+     * 发布时间落在 (since, until] 内的已发布文章（只含id和发布时间），各节点定期对账用
+     */
+    @Select("select id, publish_time from blog.articles " +
+            "where status = 1 and publish_time > #{since} and publish_time <= #{until}")
+    List<Articles> selectPublishedBetween(@Param("since") LocalDateTime since, @Param("until") LocalDateTime until);
+
+    /**
+     * 一条多值INSERT写入多篇文章，自增id回填到各文章的id
+     */
+    int insertBatch(@Param("articles") List<Articles> articles);
+
+    /**
+     * 按id顺序以游标读取全部文章，用于全量导出；必须在事务内遍历
+     * fetchSize = Integer.MIN_VALUE 让驱动逐行流式读取（只对这条语句生效，不需要改连接参数）；
+     * 流式读取期间这个连接不能执行其他语句
+     */
+    @Select("select id, title, content, summary, cover_image, status, author_id, view_count, like_count, " +
+            "comment_count, share_count, create_time, update_time, publish_time from blog.articles order by id")
+    @Options(fetchSize = Integer.MIN_VALUE, resultSetType = ResultSetType.FORWARD_ONLY)
+    Cursor<Articles> cursorForExport();
 }
@@ -2,9 +2,25 @@ package com.example.weijiahome.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.weijiahome.entity.po.CommentLikes;
-import com.example.weijiahome.entity.po.Comments;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 
 @Mapper
 public interface CommentLikesMapper extends BaseMapper<CommentLikes> {
+
+    /**
+     * 点赞评论，依赖(user_id, comment_id)唯一索引，已点过赞时不插入
+     * @return 1表示新点赞，0表示之前已点过
+     */
+    @Insert("insert ignore into blog.comment_likes(user_id, comment_id, created_at) values(#{userId}, #{commentId}, now())")
+    int insertIgnore(@Param("userId") Integer userId, @Param("commentId") Integer commentId);
+
+    /**
+     * 取消评论点赞
+     * @return 1表示取消成功，0表示本来就没点赞
+     */
+    @Delete("delete from blog.comment_likes where user_id = #{userId} and comment_id = #{commentId}")
+    int deleteLike(@Param("userId") Integer userId, @Param("commentId") Integer commentId);
 }
@@ -5,9 +5,11 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -23,6 +25,53 @@ public interface CommentsMapper extends BaseMapper<Comments> {
     List<Comments> getComments(  @Param("articleId") Integer articleId,
                                  @Param("pageNum") Integer pageNum,
                                  @Param("pageSize") Integer pageSize);
-    @Select("select count(*) from blog.comments")
+    @Select("select count(*) from blog.comments where IFNULL(isdelete, 0) = 0")
     Integer count();
+
+    /**
+     * 写入评论所在的讨论串和物化路径（插入后才有id）
+     */
+    @Update("update blog.comments set root_id = #{rootId}, path = #{path} where id = #{id}")
+    int setThread(@Param("id") Integer id, @Param("rootId") Integer rootId, @Param("path") String path);
+
+    /**
+     * 累加顶级评论的回复数
+     */
+    @Update("update blog.comments set reply_count = GREATEST(reply_count + #{delta}, 0) where id = #{rootId}")
+    int addReplyCount(@Param("rootId") Integer rootId, @Param("delta") int delta);
+
+    /**
+     * 软删除一条评论及其下的全部回复（路径前缀匹配，走 (root_id, path) 索引）
+     * @return 本次新标记删除的条数
+     */
+    @Update("update blog.comments set isdelete = 1 " +
+            "where root_id = #{rootId} and (path = #{path} or path like concat(#{path}, '.%')) and IFNULL(isdelete, 0) = 0")
+    int softDeleteSubtree(@Param("rootId") Integer rootId, @Param("path") String path);
+
+    /**
+     * 按id倒序取一页顶级评论（keyset翻页）
+     * @param beforeId 上一页最后一条的id，为空时从最新开始
+     */
+    List<Comments> selectRoots(@Param("articleId") Integer articleId,
+                               @Param("beforeId") Integer beforeId,
+                               @Param("limit") Integer limit);
+
+    /**
+     * 一次取出多个讨论串各自的前 limit 条回复，每个讨论串是一次按 (root_id, path) 的索引范围扫描
+     */
+    List<Comments> selectFirstReplies(@Param("rootIds") List<Integer> rootIds, @Param("limit") Integer limit);
+
+    /**
+     * 按路径顺序继续取一个讨论串的回复
+     * @param afterPath 上一批最后一条回复的路径，为空时从头开始
+     */
+    List<Comments> selectReplies(@Param("rootId") Integer rootId,
+                                 @Param("afterPath") String afterPath,
+                                 @Param("limit") Integer limit);
+
+    /**
+     * 批量累加评论点赞数，一条语句更新多行
+     * @param deltas 评论id -> 增量
+     */
+    int addLikeCountDeltas(@Param("deltas") Map<Integer, Long> deltas);
 }
@@ -0,0 +1,22 @@
+package com.example.weijiahome.mapper;
+
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+
+@Mapper
+public interface ContentVersionsMapper {
+
+    /**
+     * 读取某个范围的版本号，没有记录时返回null
+     */
+    @Select("select version from blog.content_versions where scope = #{scope}")
+    Long getVersion(@Param("scope") String scope);
+
+    /**
+     * 多个范围的版本号各加一，没有记录时插入；一条语句
+     */
+    int bumpAll(@Param("scopes") Collection<String> scopes);
+}
@@ -3,8 +3,10 @@ package com.example.weijiahome.mapper;
 import com.example.weijiahome.entity.po.Tags;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Select;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -21,4 +23,15 @@ public interface TagsMapper extends BaseMapper<Tags> {
     List<Tags> getPopular(Integer limit);
     @Select("select * from blog.tags ")
     List<Tags> getTags();
+
+    /**
+     * 按增量调整标签的文章数，不会减到0以下
+     */
+    int addArticleCount(@Param("tagIds") Collection<Integer> tagIds, @Param("delta") int delta);
+
+    /**
+     * 一条多值 INSERT IGNORE 创建多个标签，已存在的同名标签跳过
+     * @return 实际创建的标签数
+     */
+    int insertNames(@Param("names") Collection<String> names);
 }
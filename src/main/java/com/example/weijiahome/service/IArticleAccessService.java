@@ -0,0 +1,16 @@
+package com.example.weijiahome.service;
+
+/**
+ * 文章访问权限校验服务
+ * 只有作者本人或管理员可以查看修订历史、设置定时发布、编辑草稿
+ */
+public interface IArticleAccessService {
+
+    /**
+     * 校验当前用户是文章作者或管理员，否则抛出业务异常
+     * @param articleId 文章id
+     * @param userId 当前用户id
+     * @param admin 当前用户是否为管理员
+     */
+    void checkAuthorOrAdmin(Integer articleId, Integer userId, boolean admin);
+}
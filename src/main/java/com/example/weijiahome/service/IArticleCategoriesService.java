@@ -5,7 +5,9 @@ import com.example.weijiahome.entity.po.ArticleCategories;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.example.weijiahome.entity.po.Categories;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -20,4 +22,19 @@ public interface IArticleCategoriesService extends IService<ArticleCategories> {
     IPage<Integer> GetCategoriesList(Integer id, Integer page, Integer pageSize);
 
     Integer getCategorie(Integer id);
+
+    /**
+     * 批量查询多篇文章的分类，固定两条SQL（关联表一次、分类表一次）
+     * @param articleIds 文章id集合
+     * @return key=文章id，value=分类对象
+     */
+    Map<Integer, Categories> getCategoriesByArticleIds(Collection<Integer> articleIds);
+
+    /**
+     * 把文章的分类同步为给定分类，分类未变化时不写库
+     * 需在调用方的事务中执行
+     * @param articleId 文章id
+     * @param categoryId 最新的分类id，null表示不修改
+     */
+    void syncCategory(Integer articleId, Integer categoryId);
 }
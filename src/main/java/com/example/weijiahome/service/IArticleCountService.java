@@ -0,0 +1,16 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.dto.GetArticlesDTO;
+
+/**
+ * 文章列表总数统计服务
+ * 按筛选条件缓存总数，文章增删或发布状态变化时失效或增量调整
+ */
+public interface IArticleCountService {
+
+    /**
+     * 获取符合筛选条件的文章总数
+     * @param articlesDTO 列表查询条件（只使用其中的筛选字段，分页和排序字段不影响结果）
+     */
+    Integer count(GetArticlesDTO articlesDTO);
+}
@@ -0,0 +1,50 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.vo.ArticleCountersVO;
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.util.List;
+
+/**
+ * 文章计数服务（浏览数等）
+ * 计数先在内存中累加，定时批量写回文章表，应用关闭前再写一次
+ */
+public interface IArticleCounterService {
+
+    /**
+     * 累加计数（只写内存）
+     */
+    void increment(Integer articleId, ArticleCounterType type, long delta);
+
+    /**
+     * 尚未写回数据库的增量
+     */
+    long pending(Integer articleId, ArticleCounterType type);
+
+    /**
+     * 在文章VO的各项计数上加上尚未落库的增量（直接修改传入对象）
+     */
+    void applyPending(ArticleVO article);
+
+    /**
+     * 复制一份文章VO并加上尚未落库的增量，用于不能修改的共享对象（如缓存中的详情）
+     */
+    ArticleVO withPending(ArticleVO article);
+
+    /**
+     * 批量读取文章的实时计数：库中的值加上尚未落库的增量，不存在的文章不返回
+     */
+    List<ArticleCountersVO> getCounters(List<Integer> articleIds);
+
+    /**
+     * 计数写库序号：每次批量写库开始前、提交后各加一
+     * 缓存计数的一方在读库前后各取一次，与落库事件中的序号比较，判断读到的值是否已包含本次增量
+     */
+    long flushSequence();
+
+    /**
+     * 把内存中的增量批量写回数据库
+     */
+    void flush();
+}
@@ -0,0 +1,31 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.util.Map;
+
+/**
+ * 文章详情缓存服务
+ * 缓存组装好的文章详情（文章、作者、分类、标签），按内存占用限制大小，带过期时间，
+ * 文章修改、删除、发布状态变化以及作者资料变化时主动失效
+ */
+public interface IArticleDetailCacheService {
+
+    /**
+     * 获取文章详情，未命中时查库组装并放入缓存
+     * 返回的是缓存中的共享对象，调用方不能修改
+     * @param id 文章id
+     * @return 文章不存在时返回null
+     */
+    ArticleVO getArticleDetail(Integer id);
+
+    /**
+     * 使指定文章的缓存失效
+     */
+    void evict(Integer id);
+
+    /**
+     * 缓存统计：命中数、未命中数、命中率、淘汰数、当前条目数
+     */
+    Map<String, Object> stats();
+}
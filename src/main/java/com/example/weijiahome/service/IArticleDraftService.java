@@ -0,0 +1,44 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.dto.ArticleDraftDTO;
+import com.example.weijiahome.entity.vo.ArticleDraftVO;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章草稿自动保存服务
+ * 每个(作者, 文章)在内存中只保留最新一份草稿，连续的保存合并为一次写库
+ */
+public interface IArticleDraftService {
+
+    /**
+     * 保存草稿（只写内存）
+     * 已有文章的草稿只能由作者本人或管理员保存；每个作者未写库的草稿数有上限
+     * @param admin 当前用户是否为管理员
+     * @return 本次保存的时间
+     */
+    LocalDateTime saveDraft(Integer authorId, boolean admin, ArticleDraftDTO draftDTO);
+
+    /**
+     * 获取草稿，优先返回内存中尚未写库的版本
+     * @param articleId 文章id，新文章传0
+     * @return 没有草稿时返回null
+     */
+    ArticleDraftVO getDraft(Integer authorId, Integer articleId);
+
+    /**
+     * 立即把该草稿写入数据库
+     * @return 有待写入的草稿时返回true
+     */
+    boolean commitDraft(Integer authorId, Integer articleId);
+
+    /**
+     * 删除草稿（内存和数据库）
+     */
+    void deleteDraft(Integer authorId, Integer articleId);
+
+    /**
+     * 写入停止编辑超过防抖间隔、或等待超过最长时间的草稿
+     */
+    void flush();
+}
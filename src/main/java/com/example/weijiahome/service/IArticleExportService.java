@@ -0,0 +1,17 @@
+package com.example.weijiahome.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 文章全量导出服务
+ */
+public interface IArticleExportService {
+
+    /**
+     * 以NDJSON格式导出全部文章（含分类、标签、计数），用游标分块读取，内存占用与文章总数无关
+     * @param out 输出流，由调用方关闭
+     * @return 导出的文章数
+     */
+    long exportNdjson(OutputStream out) throws IOException;
+}
@@ -0,0 +1,27 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ImportReportVO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 文章批量导入服务
+ * 边读边写，按批次用多值INSERT落库；单条记录出错只记入报告，不影响其它记录
+ */
+public interface IArticleImportService {
+
+    /**
+     * 导入NDJSON：每行一个 ImportArticleDTO 的JSON
+     * @param authorId 导入文章的作者id
+     * @param in 输入流，由调用方关闭
+     */
+    ImportReportVO importNdjson(Integer authorId, InputStream in) throws IOException;
+
+    /**
+     * 导入Markdown压缩包：每个 .md 文件一篇文章，文件开头可带 front matter（title/category/tags等）
+     * @param authorId 导入文章的作者id
+     * @param in zip输入流，由调用方关闭
+     */
+    ImportReportVO importMarkdownZip(Integer authorId, InputStream in) throws IOException;
+}
@@ -0,0 +1,30 @@
+package com.example.weijiahome.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 文章定时发布服务
+ */
+public interface IArticlePublishScheduleService {
+
+    /**
+     * 设置定时发布：文章先改为未发布，到期后自动发布；重复设置视为改期
+     * 仅作者本人或管理员可设置
+     * @param publishTime 计划发布时间，必须晚于当前时间，按秒截断
+     * @return 实际生效的发布时间
+     */
+    LocalDateTime schedule(Integer articleId, LocalDateTime publishTime, Integer userId, boolean admin);
+
+    /**
+     * 用户取消定时发布：删除计划并把文章还原为设置计划前的发布状态和发布时间
+     * 仅作者本人或管理员可取消
+     * @return 存在发布计划时返回true
+     */
+    boolean unschedule(Integer articleId, Integer userId, boolean admin);
+
+    /**
+     * 只删除发布计划，不改动文章（手动发布/取消发布、删除文章时调用，文章状态由调用方决定）
+     * @return 存在发布计划时返回true
+     */
+    boolean cancel(Integer articleId);
+}
@@ -0,0 +1,46 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.vo.ArticleRevisionVO;
+
+import java.util.List;
+
+/**
+ * 文章修订历史服务
+ * 需在写文章的事务中调用，保证版本号连续、差异的基准就是上一版本
+ */
+public interface IArticleRevisionService {
+
+    /**
+     * 新建文章时记录第一个版本
+     */
+    void recordCreate(Articles article);
+
+    /**
+     * 批量导入时一条语句记录一批新文章的第一个版本
+     */
+    void recordCreates(List<Articles> articles);
+
+    /**
+     * 文章修改后记录新版本；标题和正文都没变时不记录
+     * 还没有历史的旧文章先把修改前的内容记为第一个版本
+     * @param before 修改前的文章（需加锁读取）
+     * @param after 修改后的文章
+     */
+    void recordEdit(Articles before, Articles after);
+
+    /**
+     * 文章的全部版本，新版本在前；仅作者本人或管理员可查看
+     */
+    List<ArticleRevisionVO> listRevisions(Integer articleId, Integer userId, boolean admin);
+
+    /**
+     * 还原指定版本的标题和正文；仅作者本人或管理员可查看
+     */
+    ArticleRevisionVO getRevision(Integer articleId, Integer revision, Integer userId, boolean admin);
+
+    /**
+     * 删除文章的全部历史
+     */
+    void deleteRevisions(Integer articleId);
+}
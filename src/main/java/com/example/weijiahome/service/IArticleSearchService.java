@@ -0,0 +1,21 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.utils.InvertedIndex;
+
+import java.util.function.IntPredicate;
+
+/**
+ * 文章全文检索服务
+ * 在内存中维护标题、摘要、正文的倒排索引，随文章增删改增量更新
+ */
+public interface IArticleSearchService {
+
+    /**
+     * 按关键词检索文章，结果按相关度排序
+     * @param keyword 关键词
+     * @param limit 最多返回的文章id个数（命中总数不受影响）
+     * @param filter 额外过滤条件，可为null
+     * @return 命中结果；索引尚未就绪或关键词无法走索引时返回null，调用方应回退到数据库查询
+     */
+    InvertedIndex.Hits search(String keyword, int limit, IntPredicate filter);
+}
@@ -0,0 +1,26 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ArticleShareStatsVO;
+import com.example.weijiahome.entity.vo.ArticleShareVO;
+
+/**
+ * 文章分享服务
+ * 总分享数和分平台分享数都在内存中累加，定时批量写回
+ */
+public interface IArticleShareService {
+
+    /**
+     * 分享文章：记一次分享并返回分享链接和最新总分享数
+     */
+    ArticleShareVO share(Integer articleId, String platform);
+
+    /**
+     * 文章的分平台分享统计（已落库 + 尚未落库）
+     */
+    ArticleShareStatsVO getShareStats(Integer articleId);
+
+    /**
+     * 把分平台增量批量写回数据库
+     */
+    void flush();
+}
@@ -0,0 +1,28 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.enums.ArticleSortField;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * 文章列表排序索引服务
+ * 最新、点赞最多、浏览最多、评论最多四种排序各维护一个按 (排序键, id) 有序的跳表，随互动事件实时更新，
+ * 列表的前若干页和游标翻页直接从跳表中取本页id，不再对全表 ORDER BY
+ */
+public interface IArticleSortIndexService {
+
+    /**
+     * 按排序取一页文章id
+     * @param cursorValue 游标中的排序键，与 cursorId 都不为空时从该位置之后取，忽略 offset
+     * @param filter 分类/标签筛选，可为空
+     * @return 本页id；排序字段没有索引、索引未就绪、偏移过深或筛选命中过少时返回null，调用方回退到SQL
+     */
+    List<Integer> page(ArticleSortField field, boolean asc, Object cursorValue, Integer cursorId,
+                       int offset, int limit, IntPredicate filter);
+
+    /**
+     * 已索引的文章总数，即不带筛选条件时的列表总数
+     */
+    int size();
+}
@@ -5,7 +5,9 @@ import com.example.weijiahome.entity.po.ArticleTags;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.example.weijiahome.entity.po.Tags;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -20,4 +22,19 @@ public interface IArticleTagsService extends IService<ArticleTags> {
     Page<Integer> getArticles(Integer id, Integer page, Integer pageSize);
 
     List<Tags> getTags(Integer id);
+
+    /**
+     * 批量查询多篇文章的标签，固定两条SQL（关联表一次、标签表一次）
+     * @param articleIds 文章id集合
+     * @return key=文章id，value=该文章的标签列表
+     */
+    Map<Integer, List<Tags>> getTagsByArticleIds(Collection<Integer> articleIds);
+
+    /**
+     * 把文章的标签同步为给定集合：只插入新增的、删除去掉的，并按同样的增量调整标签的文章数
+     * 需在调用方的事务中执行
+     * @param articleId 文章id
+     * @param tagIds 文章最新的标签id，null或空表示清空
+     */
+    void syncTags(Integer articleId, Collection<Integer> tagIds);
 }
@@ -0,0 +1,21 @@
+package com.example.weijiahome.service;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+
+/**
+ * 文章分类/标签倒排索引服务
+ * 内存中按分类、按标签各维护一份有序的文章id集合（RoaringBitmap），列表筛选时先求交/并集再查本页数据
+ */
+public interface IArticleTaxonomyIndexService {
+
+    /**
+     * 按分类和标签筛选文章id
+     * @param categoryId 分类id，可为空
+     * @param tagIds 标签id，可为空
+     * @param matchAll true表示必须包含全部标签，false表示包含任一标签即可
+     * @return 满足条件的文章id集合（调用方可修改）；索引尚未就绪时返回null，调用方回退到SQL筛选
+     */
+    RoaringBitmap match(Integer categoryId, Collection<Integer> tagIds, boolean matchAll);
+}
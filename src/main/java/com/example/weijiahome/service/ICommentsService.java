@@ -2,9 +2,10 @@ package com.example.weijiahome.service;
 
 import com.example.weijiahome.entity.po.Comments;
 import com.baomidou.mybatisplus.extension.service.IService;
+import com.example.weijiahome.entity.vo.CommentRepliesVO;
+import com.example.weijiahome.entity.vo.CommentThreadPageVO;
 import com.example.weijiahome.entity.vo.CommentsLikeVO;
 import com.example.weijiahome.entity.vo.CommentsListVO;
-import com.example.weijiahome.entity.vo.LikeVO;
 import com.example.weijiahome.entity.vo.SaveCommentVO;
 
 /**
@@ -19,9 +20,22 @@ public interface ICommentsService extends IService<Comments> {
 
     CommentsListVO getComments(Integer userId,Integer articleId, Integer page, Integer pageSize);
 
+    /**
+     * 按讨论串分页获取评论：顶级评论按时间倒序keyset翻页，每个讨论串附带前几条回复和回复总数
+     * @param cursor 上一页返回的nextCursor，为空时从最新开始
+     * @param limit 每页讨论串数
+     * @param replyLimit 每个讨论串附带的回复数
+     */
+    CommentThreadPageVO getThreads(Integer userId, Integer articleId, String cursor, Integer limit, Integer replyLimit);
+
+    /**
+     * 继续加载一个讨论串的回复（按楼中楼顺序）
+     * @param rootId 顶级评论id
+     * @param cursor 讨论串或上一批回复返回的游标
+     */
+    CommentRepliesVO getReplies(Integer userId, Integer rootId, String cursor, Integer limit);
+
     SaveCommentVO insert(Comments comment);
 
     void cleanComments(Integer id);
-
-    LikeVO likeComment(Integer id,Integer userId);
 }
@@ -0,0 +1,32 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+/**
+ * 内容版本服务
+ * 为公开的只读接口生成ETag：版本取自数据库（文章的 update_time、content_versions 表），各节点、重启前后一致
+ * 浏览、点赞等计数变化很快，不计入ETag，由计数接口单独返回
+ */
+public interface IContentVersionService {
+
+    /**
+     * 文章详情的ETag（文章内容、作者资料、分类标签任一变化都会改变，计数不影响）
+     * @param article 缓存中的文章详情
+     */
+    String articleETag(ArticleVO article);
+
+    /**
+     * 文章列表的ETag（文章、分类、标签任一变化都会改变）
+     */
+    String articleListETag();
+
+    /**
+     * 分类列表的ETag
+     */
+    String categoriesETag();
+
+    /**
+     * 标签列表、热门标签的ETag
+     */
+    String tagsETag();
+}
@@ -0,0 +1,18 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.util.List;
+
+/**
+ * 热门文章服务
+ * 按浏览、点赞、评论、分享加权并随时间指数衰减计算热度，内存中维护前K名
+ */
+public interface IHotArticleService {
+
+    /**
+     * 热门文章，按热度从高到低（不含正文）
+     * @param limit 条数，不超过排行容量
+     */
+    List<ArticleVO> getHotArticles(int limit);
+}
@@ -0,0 +1,39 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.enums.InteractionType;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 互动用户位图服务
+ * 按目标（文章、评论）维护点赞/收藏用户id的压缩位图，"我是否点过赞"等判断直接查内存
+ */
+public interface IInteractionBitmapService {
+
+    /**
+     * 用户是否对目标有该互动
+     */
+    boolean contains(InteractionType type, Integer targetId, Integer userId);
+
+    /**
+     * 批量判断，缺失的位图一次查询全部加载
+     * @return 目标id -> 是否有该互动
+     */
+    Map<Integer, Boolean> containsAll(InteractionType type, Collection<Integer> targetIds, Integer userId);
+
+    /**
+     * 目标的互动用户数（位图基数）
+     */
+    int count(InteractionType type, Integer targetId);
+
+    /**
+     * 关系表写入后调用，位图未加载时不做处理（之后加载会从库里读到）
+     */
+    void add(InteractionType type, Integer targetId, Integer userId);
+
+    /**
+     * 关系表删除后调用
+     */
+    void remove(InteractionType type, Integer targetId, Integer userId);
+}
@@ -0,0 +1,33 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.LikeVO;
+
+/**
+ * 点赞服务（文章、评论）
+ * 关系表用 INSERT IGNORE / DELETE 保证同一用户对同一目标幂等，点赞数增量在内存中累加后批量写回
+ */
+public interface ILikeService {
+
+    /**
+     * 设置文章点赞状态，重复设置同一状态不会重复计数
+     * @param liked true点赞，false取消点赞
+     * @return 最新点赞数和点赞状态
+     */
+    LikeVO likeArticle(Integer userId, Integer articleId, boolean liked);
+
+    /**
+     * 切换评论点赞状态：未点赞则点赞，已点赞则取消
+     * @return 最新点赞数和点赞状态
+     */
+    LikeVO toggleCommentLike(Integer userId, Integer commentId);
+
+    /**
+     * 评论尚未写回数据库的点赞增量
+     */
+    long pendingCommentLikes(Integer commentId);
+
+    /**
+     * 把评论点赞增量批量写回数据库（文章点赞数由文章计数服务写回）
+     */
+    void flush();
+}
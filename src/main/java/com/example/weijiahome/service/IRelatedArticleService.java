@@ -0,0 +1,19 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ArticleVO;
+
+import java.util.List;
+
+/**
+ * 相关文章服务
+ * 每篇已发布文章按标签/分类和正文片段各计算一段 MinHash 签名，常驻内存并按 LSH 分桶，查询只比较同桶的文章
+ */
+public interface IRelatedArticleService {
+
+    /**
+     * 与指定文章最相关的已发布文章，按相似度从高到低（不含正文）
+     * @param articleId 文章id，未发布或不存在时返回空列表
+     * @param limit 条数
+     */
+    List<ArticleVO> getRelatedArticles(Integer articleId, int limit);
+}
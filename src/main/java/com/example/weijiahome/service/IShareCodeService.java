@@ -0,0 +1,17 @@
+package com.example.weijiahome.service;
+
+/**
+ * 分享码服务
+ */
+public interface IShareCodeService {
+
+    /**
+     * 文章的分享码
+     */
+    String codeOf(Integer articleId);
+
+    /**
+     * 分享码 -> 文章id，新分享码直接反算，旧的随机分享码查内存映射；无法识别时返回null
+     */
+    Integer resolve(String code);
+}
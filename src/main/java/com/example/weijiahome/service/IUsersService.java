@@ -10,6 +10,8 @@ import com.example.weijiahome.entity.vo.favorites.UserFavoritesVO;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
 
 /**
  * <p>
@@ -23,6 +25,8 @@ public interface IUsersService extends IService<Users> {
 
     String updateAvatar(Integer userId, MultipartFile file) throws IOException;
 
+    boolean updateProfile(Integer userId, Users profile);
+
     UsersFollowVO followUser(Integer userId, Integer id);
 
     UsersFollowVO unfollowUser(Integer userId, Integer id);
@@ -34,4 +38,10 @@ public interface IUsersService extends IService<Users> {
     IPage<UserFavoritesVO> favoritesUser(Integer userId, Integer page, Integer pageSize);
 
     IPage<ArticleLikeListVO> userLikeArticles(Integer userId, Integer page, Integer pageSize);
+
+    /**
+     * 批量查询用户的展示信息（id、用户名、头像），一条SQL
+     * @return 用户id -> 用户，不存在的用户不在结果中
+     */
+    Map<Integer, Users> getUserSummaries(Collection<Integer> userIds);
 }
@@ -0,0 +1,17 @@
+package com.example.weijiahome.service;
+
+import com.example.weijiahome.entity.vo.ViewerStateVO;
+
+import java.util.Collection;
+
+/**
+ * 当前用户互动状态服务
+ */
+public interface IViewerStateService {
+
+    /**
+     * 批量获取当前用户对文章的点赞、收藏状态和对作者的关注状态
+     * 点赞、收藏走内存位图，关注一次 IN 查询，最多三条SQL
+     */
+    ViewerStateVO getViewerState(Integer userId, Collection<Integer> articleIds, Collection<Integer> authorIds);
+}
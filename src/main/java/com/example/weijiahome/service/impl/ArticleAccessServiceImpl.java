@@ -0,0 +1,34 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleAccessService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+/**
+ * 文章访问权限校验服务实现类
+ */
+@Service
+public class ArticleAccessServiceImpl implements IArticleAccessService {
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+
+    @Override
+    public void checkAuthorOrAdmin(Integer articleId, Integer userId, boolean admin) {
+        QueryWrapper<Articles> qw = new QueryWrapper<>();
+        qw.select("id", "author_id").eq("id", articleId);
+        Articles article = articlesMapper.selectOne(qw);
+        if (article == null) {
+            throw new BusinessException("文章不存在");
+        }
+        if (!admin && !Objects.equals(article.getAuthorId(), userId)) {
+            throw new BusinessException("无权操作该文章");
+        }
+    }
+}
@@ -13,10 +13,17 @@ import com.example.weijiahome.mapper.CategoriesMapper;
 import com.example.weijiahome.service.IArticleCategoriesService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.weijiahome.service.ICategoriesService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,12 +37,16 @@ import java.util.stream.Collectors;
 @Service
 public class ArticleCategoriesServiceImpl extends ServiceImpl<ArticleCategoriesMapper, ArticleCategories> implements IArticleCategoriesService {
 
+    private static final Logger logger = LoggerFactory.getLogger(ArticleCategoriesServiceImpl.class);
+
     @Autowired
     private ArticleCategoriesMapper categoryArticleMapper;
     @Autowired
     private ArticlesMapper articlesMapper;
     @Autowired
     private ICategoriesService categoriesService;
+    @Autowired
+    private CategoriesMapper categoriesMapper;
 
     /**
      * 通过分类ID分页查询关联的文章ID列表
@@ -81,4 +92,66 @@ public class ArticleCategoriesServiceImpl extends ServiceImpl<ArticleCategoriesM
         }
     }
 
+    /**
+     * 批量查询多篇文章的分类
+     * @param articleIds 文章id集合
+     */
+    @Override
+    public Map<Integer, Categories> getCategoriesByArticleIds(Collection<Integer> articleIds) {
+        Map<Integer, Categories> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        //1. 一次查出这些文章的 文章-分类 关联
+        QueryWrapper<ArticleCategories> qw = new QueryWrapper<>();
+        qw.in("article_id", articleIds);
+        List<ArticleCategories> relations = categoryArticleMapper.selectList(qw);
+        if (relations.isEmpty()) {
+            return result;
+        }
+        //2. 去重后一次查出全部分类
+        Set<Integer> categoryIds = relations.stream()
+                .map(ArticleCategories::getCategoryId)
+                .collect(Collectors.toSet());
+        Map<Integer, Categories> categoryMap = categoriesMapper.selectBatchIds(categoryIds).stream()
+                .collect(Collectors.toMap(Categories::getId, Function.identity()));
+        //3. 在内存中按文章id拼装
+        for (ArticleCategories relation : relations) {
+            Categories category = categoryMap.get(relation.getCategoryId());
+            if (category == null) {
+                logger.warn("分类Id：{}不存在", relation.getCategoryId());
+                continue;
+            }
+            result.put(relation.getArticleId(), category);
+        }
+        return result;
+    }
+
+    /**
+     * 同步文章分类：已是该分类（且只有一行）时不写库，否则删掉旧关联再写一行
+     * @param articleId 文章id
+     * @param categoryId 最新的分类id
+     */
+    @Override
+    public void syncCategory(Integer articleId, Integer categoryId) {
+        if (categoryId == null) {
+            return;
+        }
+        QueryWrapper<ArticleCategories> qw = new QueryWrapper<>();
+        qw.select("category_id").eq("article_id", articleId);
+        List<ArticleCategories> current = categoryArticleMapper.selectList(qw);
+        if (current.size() == 1 && categoryId.equals(current.get(0).getCategoryId())) {
+            return;
+        }
+        if (!current.isEmpty()) {
+            QueryWrapper<ArticleCategories> deleteQw = new QueryWrapper<>();
+            deleteQw.eq("article_id", articleId);
+            categoryArticleMapper.delete(deleteQw);
+        }
+        ArticleCategories relation = new ArticleCategories();
+        relation.setArticleId(articleId)
+                .setCategoryId(categoryId);
+        categoryArticleMapper.insert(relation);
+    }
+
 }
@@ -0,0 +1,99 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.dto.GetArticlesDTO;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleCountService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文章列表总数统计服务实现类
+ */
+@Service
+public class ArticleCountServiceImpl implements IArticleCountService {
+    /**
+     * 无任何筛选条件时的缓存key
+     */
+    static final String ALL = "all";
+    /**
+     * 最多缓存的筛选条件个数，超出后整体清空，避免关键词无限增长
+     */
+    private static final int MAX_SIGNATURES = 1024;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+
+    private final Map<String, Integer> counts = new ConcurrentHashMap<>();
+    /**
+     * 每次文章变更自增；查询前后版本不一致说明期间有变更，本次结果不写入缓存
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Override
+    public Integer count(GetArticlesDTO articlesDTO) {
+        String signature = signature(articlesDTO);
+        Integer cached = counts.get(signature);
+        if (cached != null) {
+            return cached;
+        }
+        long before = generation.get();
+        Integer total = articlesMapper.countArticles(articlesDTO);
+        if (total == null) {
+            total = 0;
+        }
+        if (generation.get() == before) {
+            if (counts.size() >= MAX_SIGNATURES) {
+                counts.clear();
+            }
+            counts.put(signature, total);
+        }
+        return total;
+    }
+
+    /**
+     * 文章变更后清空缓存（事务提交后执行，没有事务时立即执行）
+     * 不在缓存值上做增减：提交之后、监听器执行之前查出的总数已经包含本次变更，再调整会重复计数
+     * 先自增版本再清空，正在进行的查询结果不会再写入缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        invalidate();
+    }
+
+    /**
+     * 导入的一批文章提交后清空缓存，理由同上
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        invalidate();
+    }
+
+    private void invalidate() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    /**
+     * 由筛选字段拼出缓存key
+     */
+    static String signature(GetArticlesDTO articlesDTO) {
+        String keyword = articlesDTO.getKeyword() == null ? "" : articlesDTO.getKeyword().trim();
+        List<Integer> tagIds = articlesDTO.getFilterTagIds();
+        if (!StringUtils.hasText(keyword)
+                && articlesDTO.getCategoryId() == null
+                && (tagIds == null || tagIds.isEmpty())) {
+            return ALL;
+        }
+        return "k=" + keyword + "&c=" + articlesDTO.getCategoryId() + "&t=" + tagIds
+                + "&m=" + Boolean.TRUE.equals(articlesDTO.getTagMatchAll());
+    }
+}
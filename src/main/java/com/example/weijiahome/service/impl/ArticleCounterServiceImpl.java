@@ -0,0 +1,171 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.vo.ArticleCountersVO;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.event.ArticleCountersFlushedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.utils.CounterBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 文章计数服务实现类
+ */
+@Service
+public class ArticleCounterServiceImpl implements IArticleCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleCounterServiceImpl.class);
+    /**
+     * 每条批量更新语句最多包含的文章数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+    /**
+     * 一次最多查询的文章数
+     */
+    private static final int MAX_COUNTER_IDS = 100;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<ArticleCounterType, CounterBuffer<Integer>> buffers = new EnumMap<>(ArticleCounterType.class);
+    private final AtomicLong flushSequence = new AtomicLong();
+
+    public ArticleCounterServiceImpl() {
+        for (ArticleCounterType type : ArticleCounterType.values()) {
+            buffers.put(type, new CounterBuffer<>());
+        }
+    }
+
+    @Override
+    public void increment(Integer articleId, ArticleCounterType type, long delta) {
+        //只写内存；热度排行、排序索引等在批量落库后按增量更新，不在每次互动时加锁
+        buffers.get(type).add(articleId, delta);
+    }
+
+    @Override
+    public long pending(Integer articleId, ArticleCounterType type) {
+        return buffers.get(type).pending(articleId);
+    }
+
+    @Override
+    public void applyPending(ArticleVO article) {
+        for (ArticleCounterType type : ArticleCounterType.values()) {
+            type.addTo(article, pending(article.getId(), type));
+        }
+    }
+
+    @Override
+    public ArticleVO withPending(ArticleVO article) {
+        ArticleVO copy = new ArticleVO();
+        BeanUtils.copyProperties(article, copy);
+        applyPending(copy);
+        return copy;
+    }
+
+    @Override
+    public List<ArticleCountersVO> getCounters(List<Integer> articleIds) {
+        if (articleIds == null || articleIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> ids = articleIds.stream().distinct().limit(MAX_COUNTER_IDS).collect(Collectors.toList());
+        QueryWrapper<Articles> qw = new QueryWrapper<>();
+        qw.select("id", "view_count", "like_count", "comment_count", "share_count").in("id", ids);
+        Map<Integer, Articles> stored = new HashMap<>();
+        for (Articles article : articlesMapper.selectList(qw)) {
+            stored.put(article.getId(), article);
+        }
+        List<ArticleCountersVO> counters = new ArrayList<>(stored.size());
+        for (Integer id : ids) {
+            Articles article = stored.get(id);
+            if (article == null) {
+                continue;
+            }
+            ArticleCountersVO vo = new ArticleCountersVO();
+            vo.setId(id);
+            vo.setViewCount(count(article.getViewCount(), id, ArticleCounterType.VIEW));
+            vo.setLikeCount(count(article.getLikeCount(), id, ArticleCounterType.LIKE));
+            vo.setCommentCount(count(article.getCommentCount(), id, ArticleCounterType.COMMENT));
+            vo.setShareCount(count(article.getShareCount(), id, ArticleCounterType.SHARE));
+            counters.add(vo);
+        }
+        return counters;
+    }
+
+    private int count(Integer stored, Integer id, ArticleCounterType type) {
+        return (int) Math.max(0, (stored == null ? 0 : stored) + pending(id, type));
+    }
+
+    /**
+     * 定时把增量写回数据库，每条语句用 CASE id WHEN ... 一次更新多行
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${blog.counter.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        for (ArticleCounterType type : ArticleCounterType.values()) {
+            CounterBuffer<Integer> buffer = buffers.get(type);
+            Map<Integer, Long> deltas = buffer.drain();
+            if (deltas.isEmpty()) {
+                continue;
+            }
+            Map<Integer, Long> chunk = new HashMap<>();
+            for (Map.Entry<Integer, Long> entry : deltas.entrySet()) {
+                chunk.put(entry.getKey(), entry.getValue());
+                if (chunk.size() >= FLUSH_BATCH_SIZE) {
+                    flushChunk(type, buffer, chunk);
+                    chunk = new HashMap<>();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                flushChunk(type, buffer, chunk);
+            }
+        }
+    }
+
+    @Override
+    public long flushSequence() {
+        return flushSequence.get();
+    }
+
+    private void flushChunk(ArticleCounterType type, CounterBuffer<Integer> buffer, Map<Integer, Long> chunk) {
+        long start = flushSequence.incrementAndGet();
+        try {
+            articlesMapper.addCounterDeltas(type.getColumn(), chunk);
+        } catch (Exception e) {
+            //写库失败时放回缓冲，下次再刷
+            buffer.restore(chunk);
+            logger.error("文章{}写库失败，共{}条，下次重试", type.getColumn(), chunk.size(), e);
+            return;
+        } finally {
+            flushSequence.incrementAndGet();
+        }
+        eventPublisher.publishEvent(new ArticleCountersFlushedEvent(this, type, chunk, start, flushSequence.get()));
+    }
+
+    /**
+     * 应用关闭前把剩余增量写回
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.po.Categories;
+import com.example.weijiahome.entity.po.Tags;
+import com.example.weijiahome.entity.po.Users;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticleCountersFlushedEvent;
+import com.example.weijiahome.event.TaxonomyChangedEvent;
+import com.example.weijiahome.event.UserProfileChangedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.mapper.UsersMapper;
+import com.example.weijiahome.service.IArticleCategoriesService;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import com.example.weijiahome.service.IArticleTagsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文章详情缓存服务实现类
+ */
+@Service
+public class ArticleDetailCacheServiceImpl implements IArticleDetailCacheService {
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private UsersMapper usersMapper;
+    @Autowired
+    private IArticleCategoriesService articleCategoriesService;
+    @Autowired
+    private IArticleTagsService articleTagsService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+
+    /**
+     * 缓存占用上限（按估算字节数计）
+     */
+    @Value("${blog.cache.article-detail.max-bytes:67108864}")
+    private long maxBytes;
+    /**
+     * 写入后的过期时间（秒）
+     */
+    @Value("${blog.cache.article-detail.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private Cache<Integer, Entry> cache;
+
+    /**
+     * 缓存项：文章详情 + 读库前后的计数写库序号，用来判断落库的增量是否已包含在读到的计数里
+     */
+    private static final class Entry {
+        final ArticleVO article;
+        final long loadStart;
+        final long loadEnd;
+
+        Entry(ArticleVO article, long loadStart, long loadEnd) {
+            this.article = article;
+            this.loadStart = loadStart;
+            this.loadEnd = loadEnd;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        cache = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Integer id, Entry entry) -> estimateBytes(entry.article))
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public ArticleVO getArticleDetail(Integer id) {
+        Entry entry = cache.get(id, this::loadEntry);
+        return entry == null ? null : entry.article;
+    }
+
+    @Override
+    public void evict(Integer id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("hitCount", stats.hitCount());
+        result.put("missCount", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictionCount", stats.evictionCount());
+        result.put("loadFailureCount", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        result.put("size", cache.estimatedSize());
+        return result;
+    }
+
+    /**
+     * 文章修改、删除、发布状态变化后失效（事务提交后执行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (event.getType() != ArticleChangedEvent.Type.CREATED) {
+            cache.invalidate(event.getArticleId());
+        }
+    }
+
+    /**
+     * 计数增量落库后合并进已缓存的详情，缓存中的计数保持与数据库一致
+     * 写库开始前就已读完的加上增量；提交后才开始读的已包含增量，不动；读库与写库有重叠的无法判断，直接失效
+     * 缓存对象是共享的，这里替换成新副本而不是原地修改
+     */
+    @EventListener
+    public void onCountersFlushed(ArticleCountersFlushedEvent event) {
+        event.getDeltas().forEach((id, delta) -> cache.asMap().computeIfPresent(id, (key, cached) -> {
+            if (cached.loadStart >= event.getEndSequence()) {
+                return cached;
+            }
+            if (cached.loadEnd >= event.getStartSequence()) {
+                return null;
+            }
+            ArticleVO copy = new ArticleVO();
+            BeanUtils.copyProperties(cached.article, copy);
+            event.getType().addTo(copy, delta);
+            return new Entry(copy, cached.loadStart, cached.loadEnd);
+        }));
+    }
+
+    /**
+     * 作者资料变化后失效该作者的全部文章详情
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        cache.asMap().values().removeIf(entry -> entry.article.getAuthor() != null
+                && event.getUserId().equals(entry.article.getAuthor().getId()));
+    }
+
+    /**
+     * 分类、标签改名或删除后失效带有该类分类/标签的详情（改动很少，不逐篇比对id）
+     */
+    @EventListener
+    public void onTaxonomyChanged(TaxonomyChangedEvent event) {
+        if (event.getType() == TaxonomyChangedEvent.Type.CATEGORY) {
+            cache.asMap().values().removeIf(entry -> entry.article.getCategory() != null);
+        } else {
+            cache.asMap().values().removeIf(entry ->
+                    entry.article.getTags() != null && !entry.article.getTags().isEmpty());
+        }
+    }
+
+    private Entry loadEntry(Integer id) {
+        long loadStart = articleCounterService.flushSequence();
+        ArticleVO article = load(id);
+        return article == null ? null : new Entry(article, loadStart, articleCounterService.flushSequence());
+    }
+
+    /**
+     * 查库组装文章详情
+     */
+    private ArticleVO load(Integer id) {
+        Articles article = articlesMapper.selectById(id);
+        if (article == null) {
+            return null;
+        }
+        // 转换为VO对象
+        ArticleVO articleVO = new ArticleVO();
+        BeanUtils.copyProperties(article, articleVO);
+        articleVO.setCreatedAt(article.getCreateTime());
+        articleVO.setUpdatedAt(article.getUpdateTime());
+
+        // 设置作者信息（去掉密码，避免随详情一起缓存和返回）
+        if (article.getAuthorId() != null) {
+            Users author = usersMapper.selectById(article.getAuthorId());
+            if (author != null) {
+                author.setPassword(null);
+            }
+            articleVO.setAuthor(author);
+        }
+
+        // 设置分类和标签信息
+        List<Integer> ids = Collections.singletonList(id);
+        Map<Integer, Categories> categories = articleCategoriesService.getCategoriesByArticleIds(ids);
+        articleVO.setCategory(categories.get(id));
+        List<Tags> tags = articleTagsService.getTagsByArticleIds(ids).get(id);
+        articleVO.setTags(tags == null ? new ArrayList<>() : tags);
+        return articleVO;
+    }
+
+    /**
+     * 粗略估算一篇文章详情占用的字节数，字符串按每字符2字节计
+     */
+    private static int estimateBytes(ArticleVO article) {
+        long bytes = 512;
+        bytes += length(article.getTitle()) * 2L;
+        bytes += length(article.getSummary()) * 2L;
+        bytes += length(article.getContent()) * 2L;
+        if (article.getTags() != null) {
+            bytes += article.getTags().size() * 128L;
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,334 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.dto.ArticleDraftDTO;
+import com.example.weijiahome.entity.po.ArticleDrafts;
+import com.example.weijiahome.entity.vo.ArticleDraftVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticleDraftsMapper;
+import com.example.weijiahome.service.IArticleAccessService;
+import com.example.weijiahome.service.IArticleDraftService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * 文章草稿自动保存服务实现类
+ * 保存只替换内存中的最新版本；定时检查，停止保存超过防抖间隔（或持续保存超过最长等待时间）的草稿批量写库
+ * 写库（定时、显式提交、删除）互斥执行，旧版本不会覆盖新版本
+ * 保存时按列长度校验全部字段；批量写入仍失败时逐条重试，被数据库拒绝的草稿丢弃并记录，不会拖累其他作者
+ * 已有文章的草稿在每一轮第一次保存时校验所有权；每个作者内存中的草稿数有上限，防止任意文章id撑大内存
+ */
+@Service
+public class ArticleDraftServiceImpl implements IArticleDraftService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleDraftServiceImpl.class);
+
+    /**
+     * 以下长度与 article_drafts 的列定义一致
+     */
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_SUMMARY_LENGTH = 500;
+    private static final int MAX_COVER_IMAGE_LENGTH = 500;
+    private static final int MAX_TAG_IDS_LENGTH = 500;
+    private static final int MAX_CONTENT_LENGTH = 1_000_000;
+    private static final int FLUSH_BATCH_SIZE = 200;
+
+    @Autowired
+    private ArticleDraftsMapper articleDraftsMapper;
+    @Autowired
+    private IArticleAccessService articleAccessService;
+
+    @Value("${blog.draft.debounce-ms:3000}")
+    private long debounceMs;
+    @Value("${blog.draft.max-wait-ms:30000}")
+    private long maxWaitMs;
+    @Value("${blog.draft.max-pending-per-author:20}")
+    private int maxPendingPerAuthor;
+
+    /**
+     * (作者id, 文章id) -> 尚未写库的最新草稿
+     */
+    private final Map<DraftKey, PendingDraft> pending = new ConcurrentHashMap<>();
+    /**
+     * 作者id -> pending 中该作者的草稿数，随 pending 的增删一起更新
+     */
+    private final Map<Integer, Integer> pendingPerAuthor = new ConcurrentHashMap<>();
+
+    private static final class DraftKey {
+        final int authorId;
+        final int articleId;
+
+        DraftKey(int authorId, int articleId) {
+            this.authorId = authorId;
+            this.articleId = articleId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DraftKey)) {
+                return false;
+            }
+            DraftKey other = (DraftKey) o;
+            return authorId == other.authorId && articleId == other.articleId;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * authorId + articleId;
+        }
+    }
+
+    /**
+     * 内存中的草稿；firstDirtyAt 是这一轮连续保存中第一次保存的时间，用于限制最长等待
+     */
+    private static final class PendingDraft {
+        final ArticleDrafts draft;
+        final long savedAt;
+        final long firstDirtyAt;
+
+        PendingDraft(ArticleDrafts draft, long savedAt, long firstDirtyAt) {
+            this.draft = draft;
+            this.savedAt = savedAt;
+            this.firstDirtyAt = firstDirtyAt;
+        }
+    }
+
+    @Override
+    public LocalDateTime saveDraft(Integer authorId, boolean admin, ArticleDraftDTO draftDTO) {
+        if (draftDTO.getTitle() != null && draftDTO.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new BusinessException("标题不能超过" + MAX_TITLE_LENGTH + "个字符");
+        }
+        if (draftDTO.getContent() != null && draftDTO.getContent().length() > MAX_CONTENT_LENGTH) {
+            throw new BusinessException("草稿内容过长");
+        }
+        if (draftDTO.getSummary() != null && draftDTO.getSummary().length() > MAX_SUMMARY_LENGTH) {
+            throw new BusinessException("摘要不能超过" + MAX_SUMMARY_LENGTH + "个字符");
+        }
+        if (draftDTO.getCoverImage() != null && draftDTO.getCoverImage().length() > MAX_COVER_IMAGE_LENGTH) {
+            throw new BusinessException("封面地址不能超过" + MAX_COVER_IMAGE_LENGTH + "个字符");
+        }
+        String tagIds = joinTagIds(draftDTO.getTagIds());
+        if (tagIds != null && tagIds.length() > MAX_TAG_IDS_LENGTH) {
+            throw new BusinessException("标签过多");
+        }
+        int articleId = draftDTO.getArticleId() == null ? 0 : draftDTO.getArticleId();
+        DraftKey draftKey = new DraftKey(authorId, articleId);
+        //内存中已有的草稿在第一次保存时校验过，连续自动保存不再每次查库
+        if (articleId != 0 && !pending.containsKey(draftKey)) {
+            articleAccessService.checkAuthorOrAdmin(articleId, authorId, admin);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        ArticleDrafts draft = new ArticleDrafts()
+                .setAuthorId(authorId)
+                .setArticleId(articleId)
+                .setTitle(draftDTO.getTitle())
+                .setContent(draftDTO.getContent())
+                .setSummary(draftDTO.getSummary())
+                .setCoverImage(draftDTO.getCoverImage())
+                .setCategoryId(draftDTO.getCategoryId())
+                .setTagIds(tagIds)
+                .setUpdateTime(now);
+        long millis = System.currentTimeMillis();
+        //只保留最新一份，沿用这一轮第一次保存的时间
+        pending.compute(draftKey, (key, old) -> {
+            if (old == null) {
+                acquireSlot(authorId);
+            }
+            return new PendingDraft(draft, millis, old == null ? millis : old.firstDirtyAt);
+        });
+        return now;
+    }
+
+    @Override
+    public ArticleDraftVO getDraft(Integer authorId, Integer articleId) {
+        int id = articleId == null ? 0 : articleId;
+        PendingDraft inMemory = pending.get(new DraftKey(authorId, id));
+        if (inMemory != null) {
+            return toVO(inMemory.draft, false);
+        }
+        QueryWrapper<ArticleDrafts> qw = new QueryWrapper<>();
+        qw.eq("author_id", authorId).eq("article_id", id);
+        ArticleDrafts draft = articleDraftsMapper.selectOne(qw);
+        return draft == null ? null : toVO(draft, true);
+    }
+
+    @Override
+    public synchronized boolean commitDraft(Integer authorId, Integer articleId) {
+        DraftKey key = new DraftKey(authorId, articleId == null ? 0 : articleId);
+        PendingDraft draft = pending.get(key);
+        if (draft == null) {
+            return false;
+        }
+        if (!write(Collections.singletonMap(key, draft))) {
+            throw new BusinessException("草稿保存失败，请稍后重试");
+        }
+        return true;
+    }
+
+    @Override
+    public synchronized void deleteDraft(Integer authorId, Integer articleId) {
+        int id = articleId == null ? 0 : articleId;
+        DraftKey key = new DraftKey(authorId, id);
+        if (pending.remove(key) != null) {
+            releaseSlot(key);
+        }
+        QueryWrapper<ArticleDrafts> qw = new QueryWrapper<>();
+        qw.eq("author_id", authorId).eq("article_id", id);
+        articleDraftsMapper.delete(qw);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${blog.draft.tick-ms:1000}")
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        Map<DraftKey, PendingDraft> due = new HashMap<>();
+        for (Map.Entry<DraftKey, PendingDraft> entry : pending.entrySet()) {
+            PendingDraft draft = entry.getValue();
+            if (now - draft.savedAt >= debounceMs || now - draft.firstDirtyAt >= maxWaitMs) {
+                due.put(entry.getKey(), draft);
+                if (due.size() >= FLUSH_BATCH_SIZE) {
+                    write(due);
+                    due.clear();
+                }
+            }
+        }
+        if (!due.isEmpty()) {
+            write(due);
+        }
+    }
+
+    /**
+     * 应用关闭前把内存中的草稿全部写入
+     */
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        List<DraftKey> keys = new ArrayList<>(pending.keySet());
+        for (int i = 0; i < keys.size(); i += FLUSH_BATCH_SIZE) {
+            Map<DraftKey, PendingDraft> batch = new HashMap<>();
+            for (DraftKey key : keys.subList(i, Math.min(i + FLUSH_BATCH_SIZE, keys.size()))) {
+                PendingDraft draft = pending.get(key);
+                if (draft != null) {
+                    batch.put(key, draft);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+    }
+
+    /**
+     * 一条语句写入一批草稿；整批失败时逐条重试，找出被拒绝的草稿
+     * 被数据库拒绝（数据不合法）的草稿重试也不会成功，丢弃并记录；其他错误（如连接失败）保留等下次重试
+     * @return 批中的草稿是否全部写入
+     */
+    private boolean write(Map<DraftKey, PendingDraft> batch) {
+        if (batch.size() > 1) {
+            try {
+                articleDraftsMapper.upsertBatch(batch.values().stream()
+                        .map(draft -> draft.draft)
+                        .collect(Collectors.toList()));
+                batch.forEach(this::written);
+                return true;
+            } catch (Exception e) {
+                logger.warn("草稿批量写入失败，逐条重试：{}", e.getMessage());
+            }
+        }
+        boolean allWritten = true;
+        for (Map.Entry<DraftKey, PendingDraft> entry : batch.entrySet()) {
+            DraftKey key = entry.getKey();
+            PendingDraft draft = entry.getValue();
+            try {
+                articleDraftsMapper.upsertBatch(Collections.singletonList(draft.draft));
+                written(key, draft);
+            } catch (DataIntegrityViolationException e) {
+                //只移除这一版，写库期间又保存的新版本仍会再试
+                if (pending.remove(key, draft)) {
+                    releaseSlot(key);
+                }
+                logger.error("草稿被数据库拒绝，已丢弃：作者{}，文章{}", key.authorId, key.articleId, e);
+                allWritten = false;
+            } catch (Exception e) {
+                logger.error("草稿写入失败，稍后重试：作者{}，文章{}", key.authorId, key.articleId, e);
+                allWritten = false;
+            }
+        }
+        return allWritten;
+    }
+
+    /**
+     * 写入后只移除未被再次保存的草稿
+     */
+    private void written(DraftKey key, PendingDraft written) {
+        pending.computeIfPresent(key, (k, current) -> {
+            if (current == written) {
+                releaseSlot(k);
+                return null;
+            }
+            //写库期间又保存过：保留新版本，最长等待从现在重新计算
+            return new PendingDraft(current.draft, current.savedAt, current.savedAt);
+        });
+    }
+
+    /**
+     * 作者新增一份内存草稿，超出上限时拒绝（在 pending.compute 中调用，拒绝时 pending 不变）
+     */
+    private void acquireSlot(Integer authorId) {
+        if (pendingPerAuthor.merge(authorId, 1, Integer::sum) > maxPendingPerAuthor) {
+            releaseSlot(authorId);
+            throw new BusinessException("未保存的草稿过多，请稍后再试");
+        }
+    }
+
+    private void releaseSlot(DraftKey key) {
+        releaseSlot(key.authorId);
+    }
+
+    private void releaseSlot(Integer authorId) {
+        pendingPerAuthor.computeIfPresent(authorId, (id, count) -> count <= 1 ? null : count - 1);
+    }
+
+    private static String joinTagIds(List<Integer> tagIds) {
+        if (tagIds == null || tagIds.isEmpty()) {
+            return null;
+        }
+        return tagIds.stream()
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .collect(Collectors.joining(","));
+    }
+
+    private static ArticleDraftVO toVO(ArticleDrafts draft, boolean persisted) {
+        ArticleDraftVO vo = new ArticleDraftVO();
+        vo.setArticleId(draft.getArticleId());
+        vo.setTitle(draft.getTitle());
+        vo.setContent(draft.getContent());
+        vo.setSummary(draft.getSummary());
+        vo.setCoverImage(draft.getCoverImage());
+        vo.setCategoryId(draft.getCategoryId());
+        vo.setTagIds(StringUtils.hasText(draft.getTagIds())
+                ? Arrays.stream(draft.getTagIds().split(",")).map(Integer::valueOf).collect(Collectors.toList())
+                : new ArrayList<>());
+        vo.setUpdateTime(draft.getUpdateTime());
+        vo.setPersisted(persisted);
+        return vo;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.po.Categories;
+import com.example.weijiahome.entity.po.Tags;
+import com.example.weijiahome.entity.vo.ArticleExportVO;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleCategoriesService;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleExportService;
+import com.example.weijiahome.service.IArticleTagsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.ibatis.cursor.Cursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 文章全量导出服务实现类
+ * 在一个只读事务里流式读取文章（文章行是同一时刻的一致快照），每块批量补齐分类、标签后立即写出；
+ * 流式读取占用的连接不能再执行其他语句，补齐分类、标签在新事务（另一个连接）中进行
+ */
+@Service
+public class ArticleExportServiceImpl implements IArticleExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleExportServiceImpl.class);
+    /**
+     * 每块补齐分类、标签并写出的文章数
+     */
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private IArticleCategoriesService articleCategoriesService;
+    @Autowired
+    private IArticleTagsService articleTagsService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public long exportNdjson(OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setReadOnly(true);
+        TransactionTemplate separate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        separate.setReadOnly(true);
+        separate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Long exported;
+        try {
+            //游标必须在事务（同一个连接）内遍历
+            exported = readOnly.execute(status -> {
+                long count = 0;
+                try (Cursor<Articles> cursor = articlesMapper.cursorForExport()) {
+                    List<Articles> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+                    for (Articles article : cursor) {
+                        chunk.add(article);
+                        if (chunk.size() >= EXPORT_CHUNK_SIZE) {
+                            count += writeChunk(separate, chunk, out);
+                            chunk.clear();
+                        }
+                    }
+                    count += writeChunk(separate, chunk, out);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return count;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        logger.info("文章导出完成，共{}篇，耗时{}ms", exported, System.currentTimeMillis() - start);
+        return exported == null ? 0 : exported;
+    }
+
+    /**
+     * 批量补齐一块文章的分类和标签（固定四条SQL，在另一个连接上执行），逐行写出后刷新输出流
+     */
+    private int writeChunk(TransactionTemplate separate, List<Articles> chunk, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = chunk.stream().map(Articles::getId).collect(Collectors.toList());
+        Map<Integer, Categories> categories = new HashMap<>();
+        Map<Integer, List<Tags>> tags = new HashMap<>();
+        separate.executeWithoutResult(status -> {
+            categories.putAll(articleCategoriesService.getCategoriesByArticleIds(ids));
+            tags.putAll(articleTagsService.getTagsByArticleIds(ids));
+        });
+        for (Articles article : chunk) {
+            ArticleExportVO vo = new ArticleExportVO();
+            vo.setId(article.getId());
+            vo.setTitle(article.getTitle());
+            vo.setContent(article.getContent());
+            vo.setSummary(article.getSummary());
+            vo.setCoverImage(article.getCoverImage());
+            vo.setStatus(article.getStatus());
+            vo.setAuthorId(article.getAuthorId());
+            Categories category = categories.get(article.getId());
+            if (category != null) {
+                vo.setCategoryId(category.getId());
+                vo.setCategory(category.getName());
+            }
+            vo.setTags(tags.getOrDefault(article.getId(), new ArrayList<>()).stream()
+                    .map(Tags::getName)
+                    .collect(Collectors.toList()));
+            vo.setViewCount(withPending(article.getViewCount(), article.getId(), ArticleCounterType.VIEW));
+            vo.setLikeCount(withPending(article.getLikeCount(), article.getId(), ArticleCounterType.LIKE));
+            vo.setShareCount(withPending(article.getShareCount(), article.getId(), ArticleCounterType.SHARE));
+            vo.setCommentCount(withPending(article.getCommentCount(), article.getId(), ArticleCounterType.COMMENT));
+            vo.setCreateTime(article.getCreateTime());
+            vo.setUpdateTime(article.getUpdateTime());
+            vo.setPublishTime(article.getPublishTime());
+            out.write(objectMapper.writeValueAsBytes(vo));
+            out.write('\n');
+        }
+        out.flush();
+        return chunk.size();
+    }
+
+    private Integer withPending(Integer base, Integer articleId, ArticleCounterType type) {
+        long value = (base == null ? 0 : base) + articleCounterService.pending(articleId, type);
+        return (int) Math.max(value, 0);
+    }
+}
@@ -0,0 +1,519 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.dto.ImportArticleDTO;
+import com.example.weijiahome.entity.po.ArticleCategories;
+import com.example.weijiahome.entity.po.ArticleTags;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.po.Categories;
+import com.example.weijiahome.entity.po.Tags;
+import com.example.weijiahome.entity.vo.ImportReportVO;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticleCategoriesMapper;
+import com.example.weijiahome.mapper.ArticleTagsMapper;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.mapper.CategoriesMapper;
+import com.example.weijiahome.mapper.TagsMapper;
+import com.example.weijiahome.service.IArticleImportService;
+import com.example.weijiahome.service.IArticleRevisionService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 文章批量导入服务实现类
+ * 每批记录：先批量解析标签名（INSERT IGNORE 创建缺失的再按名称查询），再在一个事务里用多值INSERT写入文章（自增id回填）、
+ * 标签关联、分类关联；整批失败时逐条重试（包括解析标签），把出错的记录挑出来
+ */
+@Service
+public class ArticleImportServiceImpl implements IArticleImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleImportServiceImpl.class);
+
+    /**
+     * 报告里最多保留的失败记录数
+     */
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    /**
+     * 单批正文累计字符数上限，避免一条INSERT超过 max_allowed_packet
+     */
+    private static final long MAX_BATCH_CHARS = 8L * 1024 * 1024;
+    /**
+     * 单个Markdown文件大小上限
+     */
+    private static final int MAX_MARKDOWN_BYTES = 5 * 1024 * 1024;
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_TAG_LENGTH = 50;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private ArticleTagsMapper articleTagsMapper;
+    @Autowired
+    private ArticleCategoriesMapper articleCategoriesMapper;
+    @Autowired
+    private TagsMapper tagsMapper;
+    @Autowired
+    private CategoriesMapper categoriesMapper;
+    @Autowired
+    private IArticleRevisionService articleRevisionService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${blog.import.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public ImportReportVO importNdjson(Integer authorId, InputStream in) throws IOException {
+        ImportSession session = new ImportSession(authorId, "ndjson");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            String record = "第" + lineNo + "行";
+            try {
+                session.accept(record, objectMapper.readValue(line, ImportArticleDTO.class));
+            } catch (JsonProcessingException e) {
+                session.reject(record, "JSON解析失败：" + e.getOriginalMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    @Override
+    public ImportReportVO importMarkdownZip(Integer authorId, InputStream in) throws IOException {
+        ImportSession session = new ImportSession(authorId, "markdown-zip");
+        ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            String lower = name.toLowerCase();
+            if (entry.isDirectory() || !(lower.endsWith(".md") || lower.endsWith(".markdown"))) {
+                continue;
+            }
+            byte[] bytes = readLimited(zip, MAX_MARKDOWN_BYTES);
+            if (bytes == null) {
+                session.reject(name, "文件超过" + (MAX_MARKDOWN_BYTES / 1024 / 1024) + "MB");
+                continue;
+            }
+            try {
+                session.accept(name, parseMarkdown(name, new String(bytes, StandardCharsets.UTF_8)));
+            } catch (IllegalArgumentException e) {
+                session.reject(name, e.getMessage());
+            }
+        }
+        return session.finish();
+    }
+
+    /**
+     * 读取当前zip条目，超过上限时丢弃剩余内容并返回null
+     */
+    private static byte[] readLimited(InputStream in, int limit) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        boolean tooLarge = false;
+        while ((n = in.read(buffer)) != -1) {
+            if (!tooLarge && out.size() + n > limit) {
+                tooLarge = true;
+            }
+            if (!tooLarge) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return tooLarge ? null : out.toByteArray();
+    }
+
+    /**
+     * 解析Markdown：开头 --- 包围的 front matter 为 key: value，其余为正文
+     * 没有title时取正文第一个一级标题，再没有则取文件名
+     */
+    ImportArticleDTO parseMarkdown(String fileName, String text) {
+        ImportArticleDTO dto = new ImportArticleDTO();
+        String body = text.startsWith("\uFEFF") ? text.substring(1) : text;
+        String normalized = body.replace("\r\n", "\n");
+        if (normalized.startsWith("---\n")) {
+            int end = normalized.indexOf("\n---", 3);
+            if (end > 0) {
+                for (String line : normalized.substring(4, Math.max(4, end)).split("\n")) {
+                    int colon = line.indexOf(':');
+                    if (colon > 0) {
+                        applyFrontMatter(dto, line.substring(0, colon).trim(), unquote(line.substring(colon + 1).trim()));
+                    }
+                }
+                int bodyStart = normalized.indexOf('\n', end + 1);
+                normalized = bodyStart < 0 ? "" : normalized.substring(bodyStart + 1);
+            }
+        }
+        dto.setContent(normalized.trim());
+        if (!StringUtils.hasText(dto.getTitle())) {
+            for (String line : normalized.split("\n")) {
+                if (line.startsWith("# ")) {
+                    dto.setTitle(line.substring(2).trim());
+                    break;
+                }
+            }
+        }
+        if (!StringUtils.hasText(dto.getTitle())) {
+            String base = fileName.substring(fileName.lastIndexOf('/') + 1);
+            dto.setTitle(base.substring(0, base.lastIndexOf('.')));
+        }
+        return dto;
+    }
+
+    private void applyFrontMatter(ImportArticleDTO dto, String key, String value) {
+        if (value.isEmpty()) {
+            return;
+        }
+        switch (key) {
+            case "title":
+                dto.setTitle(value);
+                break;
+            case "summary":
+            case "description":
+                dto.setSummary(value);
+                break;
+            case "cover":
+            case "coverImage":
+                dto.setCoverImage(value);
+                break;
+            case "category":
+                dto.setCategory(value);
+                break;
+            case "categoryId":
+                dto.setCategoryId(parseInt(key, value));
+                break;
+            case "tags":
+                String list = value.startsWith("[") && value.endsWith("]") ? value.substring(1, value.length() - 1) : value;
+                List<String> tags = new ArrayList<>();
+                for (String tag : list.split(",")) {
+                    tags.add(unquote(tag.trim()));
+                }
+                dto.setTags(tags);
+                break;
+            case "status":
+                dto.setStatus(parseInt(key, value));
+                break;
+            case "date":
+            case "createTime":
+                dto.setCreateTime(parseDateTime(value));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static Integer parseInt(String key, String value) {
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + "不是整数：" + value);
+        }
+    }
+
+    private static LocalDateTime parseDateTime(String value) {
+        try {
+            if (value.length() == 10) {
+                return LocalDate.parse(value).atStartOfDay();
+            }
+            return LocalDateTime.parse(value.replace(' ', 'T'), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无法解析日期：" + value);
+        }
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && (value.startsWith("\"") && value.endsWith("\"") || value.startsWith("'") && value.endsWith("'"))) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+
+    /**
+     * 校验通过、等待写入的一篇文章
+     */
+    private static class Prepared {
+        final String record;
+        final Articles article;
+        final Integer categoryId;
+        final List<String> tagNames;
+
+        Prepared(String record, Articles article, Integer categoryId, List<String> tagNames) {
+            this.record = record;
+            this.article = article;
+            this.categoryId = categoryId;
+            this.tagNames = tagNames;
+        }
+    }
+
+    /**
+     * 一次导入的状态：当前批次、标签名缓存、统计
+     */
+    private class ImportSession {
+        private final Integer authorId;
+        private final ImportReportVO report = new ImportReportVO();
+        private final long start = System.currentTimeMillis();
+        private final List<Prepared> batch = new ArrayList<>();
+        private long batchChars = 0;
+        /**
+         * 标签名 -> 标签id，整个导入过程中复用；与数据库排序规则一致，不区分大小写
+         */
+        private final Map<String, Integer> tagIds = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        private final Map<String, Integer> categoryIdsByName = new HashMap<>();
+        private final Set<Integer> categoryIds = new HashSet<>();
+
+        ImportSession(Integer authorId, String format) {
+            this.authorId = authorId;
+            report.setFormat(format);
+            //分类数量很少，一次全部读出
+            for (Categories category : categoriesMapper.selectList(null)) {
+                categoryIds.add(category.getId());
+                categoryIdsByName.put(category.getName(), category.getId());
+            }
+        }
+
+        void accept(String record, ImportArticleDTO dto) {
+            report.setTotal(report.getTotal() + 1);
+            Prepared prepared;
+            try {
+                prepared = prepare(record, dto);
+            } catch (IllegalArgumentException e) {
+                addError(record, e.getMessage());
+                return;
+            }
+            batch.add(prepared);
+            batchChars += prepared.article.getContent().length();
+            if (batch.size() >= batchSize || batchChars >= MAX_BATCH_CHARS) {
+                flush();
+            }
+        }
+
+        void reject(String record, String message) {
+            report.setTotal(report.getTotal() + 1);
+            addError(record, message);
+        }
+
+        ImportReportVO finish() {
+            flush();
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            report.setElapsedMs(elapsed);
+            report.setRecordsPerSecond(report.getSucceeded() * 1000L / elapsed);
+            logger.info("文章导入完成：共{}条，成功{}条，失败{}条，耗时{}ms，{}条/秒", report.getTotal(),
+                    report.getSucceeded(), report.getFailed(), elapsed, report.getRecordsPerSecond());
+            return report;
+        }
+
+        private void addError(String record, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+                report.getErrors().add(new ImportReportVO.RecordError(record, message));
+            } else {
+                report.setErrorsTruncated(true);
+            }
+        }
+
+        /**
+         * 校验一条记录并转换成文章实体
+         */
+        private Prepared prepare(String record, ImportArticleDTO dto) {
+            if (dto == null || !StringUtils.hasText(dto.getTitle())) {
+                throw new IllegalArgumentException("文章标题不能为空");
+            }
+            if (!StringUtils.hasText(dto.getContent())) {
+                throw new IllegalArgumentException("文章内容不能为空");
+            }
+            String title = dto.getTitle().trim();
+            if (title.length() > MAX_TITLE_LENGTH) {
+                throw new IllegalArgumentException("文章标题超过" + MAX_TITLE_LENGTH + "个字符");
+            }
+            Integer categoryId = dto.getCategoryId();
+            if (categoryId == null && StringUtils.hasText(dto.getCategory())) {
+                categoryId = categoryIdsByName.get(dto.getCategory().trim());
+                if (categoryId == null) {
+                    throw new IllegalArgumentException("分类不存在：" + dto.getCategory());
+                }
+            }
+            if (categoryId == null) {
+                throw new IllegalArgumentException("文章分类不能为空");
+            }
+            if (!categoryIds.contains(categoryId)) {
+                throw new IllegalArgumentException("分类不存在：" + categoryId);
+            }
+            Set<String> tagNames = new LinkedHashSet<>();
+            if (dto.getTags() != null) {
+                for (String tag : dto.getTags()) {
+                    if (!StringUtils.hasText(tag)) {
+                        continue;
+                    }
+                    String name = tag.trim();
+                    if (name.length() > MAX_TAG_LENGTH) {
+                        throw new IllegalArgumentException("标签名超过" + MAX_TAG_LENGTH + "个字符：" + name);
+                    }
+                    tagNames.add(name);
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime createTime = dto.getCreateTime() == null ? now : dto.getCreateTime();
+            int status = dto.getStatus() == null ? 1 : dto.getStatus();
+            Articles article = new Articles();
+            article.setTitle(title)
+                    .setContent(dto.getContent())
+                    .setSummary(dto.getSummary())
+                    .setCoverImage(dto.getCoverImage())
+                    .setStatus(status)
+                    .setAuthorId(authorId)
+                    .setCreateTime(createTime)
+                    .setUpdateTime(now)
+                    .setPublishTime(status == 1 ? createTime : null);
+            return new Prepared(record, article, categoryId, new ArrayList<>(tagNames));
+        }
+
+        /**
+         * 写入当前批次
+         */
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<Prepared> pending = new ArrayList<>(batch);
+            batch.clear();
+            batchChars = 0;
+            try {
+                resolveTags(pending);
+                write(pending);
+            } catch (Exception e) {
+                //整批失败：逐条重试，只有真正出错的记录计为失败
+                for (Prepared prepared : pending) {
+                    try {
+                        resolveTags(List.of(prepared));
+                        write(List.of(prepared));
+                    } catch (Exception single) {
+                        addError(prepared.record, rootMessage(single));
+                    }
+                }
+            }
+            long elapsed = Math.max(System.currentTimeMillis() - start, 1);
+            logger.info("文章导入中：已处理{}条，成功{}条，{}条/秒", report.getTotal(), report.getSucceeded(),
+                    report.getSucceeded() * 1000L / elapsed);
+        }
+
+        /**
+         * 批量解析标签名：缓存里没有的一次查出，仍不存在的一次创建
+         */
+        private void resolveTags(List<Prepared> pending) {
+            Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            for (Prepared prepared : pending) {
+                for (String name : prepared.tagNames) {
+                    if (!tagIds.containsKey(name)) {
+                        missing.add(name);
+                    }
+                }
+            }
+            if (missing.isEmpty()) {
+                return;
+            }
+            loadTagIds(missing);
+            missing.removeAll(tagIds.keySet());
+            if (!missing.isEmpty()) {
+                //同名标签可能刚被并发创建：INSERT IGNORE 跳过，再按名称查出id
+                report.setCreatedTags(report.getCreatedTags() + tagsMapper.insertNames(missing));
+                loadTagIds(missing);
+            }
+        }
+
+        private void loadTagIds(Set<String> names) {
+            QueryWrapper<Tags> qw = new QueryWrapper<>();
+            qw.select("id", "name").in("name", names);
+            for (Tags tag : tagsMapper.selectList(qw)) {
+                tagIds.putIfAbsent(tag.getName(), tag.getId());
+            }
+        }
+
+        /**
+         * 在一个事务里写入一批文章、第一个版本及其关联，提交后整批发布一次导入事件
+         */
+        private void write(List<Prepared> pending) {
+            List<Articles> written = transactionTemplate.execute(status -> {
+                //id由自增分配，不与并发的 createArticles 冲突；逐条重试时清掉上一次失败回填的id
+                List<Articles> articles = new ArrayList<>(pending.size());
+                for (Prepared prepared : pending) {
+                    articles.add(prepared.article.setId(null));
+                }
+                articlesMapper.insertBatch(articles);
+                articleRevisionService.recordCreates(articles);
+                List<ArticleCategories> categories = new ArrayList<>(pending.size());
+                List<ArticleTags> tags = new ArrayList<>();
+                Map<Integer, Integer> tagDeltas = new HashMap<>();
+                for (Prepared prepared : pending) {
+                    int id = prepared.article.getId();
+                    categories.add(new ArticleCategories().setArticleId(id).setCategoryId(prepared.categoryId));
+                    Set<Integer> articleTagIds = new HashSet<>();
+                    for (String name : prepared.tagNames) {
+                        Integer tagId = tagIds.get(name);
+                        if (tagId != null && articleTagIds.add(tagId)) {
+                            tags.add(new ArticleTags().setArticleId(id).setTagId(tagId));
+                            tagDeltas.merge(tagId, 1, Integer::sum);
+                        }
+                    }
+                }
+                articleCategoriesMapper.insertBatch(categories);
+                if (!tags.isEmpty()) {
+                    articleTagsMapper.insertBatch(tags);
+                }
+                //文章数增量相同的标签合并成一条UPDATE
+                Map<Integer, List<Integer>> tagsByDelta = new TreeMap<>();
+                tagDeltas.forEach((tagId, delta) -> tagsByDelta.computeIfAbsent(delta, d -> new ArrayList<>()).add(tagId));
+                tagsByDelta.forEach((delta, tagIdList) -> tagsMapper.addArticleCount(tagIdList, delta));
+                return articles;
+            });
+            report.setSucceeded(report.getSucceeded() + written.size());
+            eventPublisher.publishEvent(new ArticlesImportedEvent(ArticleImportServiceImpl.this, written));
+        }
+    }
+
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage();
+        return message == null ? root.getClass().getSimpleName() : message;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.po.ArticlePublishSchedule;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticlePublishScheduleMapper;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleAccessService;
+import com.example.weijiahome.service.IArticlePublishScheduleService;
+import com.example.weijiahome.utils.TimingWheel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文章定时发布服务实现类
+ * 发布计划存在 article_publish_schedule 表中，启动时全部装入内存中的分层时间轮，单个线程每格推进一次，不轮询数据库
+ * 多节点部署时每个节点都持有全部计划：到期后先按 (文章id, 发布时间) 删除计划行来认领，
+ * 删除成功的节点在同一事务中把文章改为已发布；所有节点都发布本地的文章变更事件，刷新各自的缓存和排行
+ * 其他节点新建的计划最多等一个重新加载间隔才会装入本节点，临近到期的计划可能错过；
+ * 因此每个节点还定期查询最近发布的文章（对账），本节点没处理过的同样发布本地变更事件
+ */
+@Service
+public class ArticlePublishScheduleServiceImpl implements IArticlePublishScheduleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticlePublishScheduleServiceImpl.class);
+
+    /**
+     * 认领失败（如数据库异常）后的重试间隔
+     */
+    private static final long RETRY_DELAY_MS = 10_000;
+    /**
+     * 对账时回看的时长：发布时间在这之内的文章都会检查，覆盖其他节点认领重试、提交延迟的情况
+     */
+    private static final long RECONCILE_LOOKBACK_MINUTES = 10;
+
+    @Autowired
+    private ArticlePublishScheduleMapper articlePublishScheduleMapper;
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private IArticleAccessService articleAccessService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${blog.publish.tick-ms:1000}")
+    private long tickMs;
+
+    private volatile TimingWheel<Task> wheel;
+    /**
+     * 已装入时间轮的计划，重新加载时用来去重
+     */
+    private final Set<Task> scheduled = ConcurrentHashMap.newKeySet();
+    /**
+     * 本节点已经发布过变更事件的计划（时间轮到期或对账发现），对账时跳过；超出回看时长后清理
+     */
+    private final Set<Task> handled = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "article-publish-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 一条发布计划
+     */
+    private static final class Task {
+        final Integer articleId;
+        final LocalDateTime publishTime;
+
+        Task(Integer articleId, LocalDateTime publishTime) {
+            this.articleId = articleId;
+            this.publishTime = publishTime;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Task)) {
+                return false;
+            }
+            Task other = (Task) o;
+            return articleId.equals(other.articleId) && publishTime.equals(other.publishTime);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(articleId, publishTime);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        wheel = new TimingWheel<>(tickMs, 60, System.currentTimeMillis());
+        reload();
+        timer.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * 从数据库装入全部发布计划（只装新出现的），包括停机期间已到期的
+     * 启动时执行一次，之后定期执行，用来获取其他节点新建的计划
+     */
+    @Scheduled(initialDelayString = "${blog.publish.reload-interval-ms:300000}",
+            fixedDelayString = "${blog.publish.reload-interval-ms:300000}")
+    public void reload() {
+        if (wheel == null) {
+            return;
+        }
+        try {
+            int loaded = 0;
+            for (ArticlePublishSchedule row : articlePublishScheduleMapper.selectList(null)) {
+                if (enqueue(new Task(row.getArticleId(), row.getPublishTime()))) {
+                    loaded++;
+                }
+            }
+            if (loaded > 0) {
+                logger.info("装入{}条文章定时发布计划", loaded);
+            }
+        } catch (Exception e) {
+            logger.error("读取文章定时发布计划失败", e);
+        }
+    }
+
+    /**
+     * 对账：发布时间在回看时长内、本节点没有处理过的已发布文章，发布本地变更事件刷新缓存、排行和索引
+     */
+    @Scheduled(initialDelayString = "${blog.publish.reconcile-interval-ms:30000}",
+            fixedDelayString = "${blog.publish.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (wheel == null) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime since = now.minusMinutes(RECONCILE_LOOKBACK_MINUTES);
+            for (Articles article : articlesMapper.selectPublishedBetween(since, now)) {
+                notifyPublished(new Task(article.getId(), article.getPublishTime()));
+            }
+            handled.removeIf(task -> task.publishTime.isBefore(since));
+        } catch (Exception e) {
+            logger.error("定时发布对账失败", e);
+        }
+    }
+
+    @Override
+    @Transactional
+    public LocalDateTime schedule(Integer articleId, LocalDateTime publishTime, Integer userId, boolean admin) {
+        articleAccessService.checkAuthorOrAdmin(articleId, userId, admin);
+        if (publishTime == null) {
+            throw new BusinessException("发布时间不能为空");
+        }
+        LocalDateTime time = publishTime.truncatedTo(ChronoUnit.SECONDS);
+        if (!time.isAfter(LocalDateTime.now())) {
+            throw new BusinessException("发布时间必须晚于当前时间");
+        }
+        //记下设置前的状态，取消时还原（加锁读取，避免与并发的发布状态修改交错）
+        Articles before = articlesMapper.selectForUpdate(articleId);
+        if (before == null) {
+            throw new BusinessException("文章不存在");
+        }
+        //到期前文章保持未发布
+        articlesMapper.markScheduled(articleId, time);
+        articlePublishScheduleMapper.upsert(articleId, time, before.getStatus(), before.getPublishTime());
+        eventPublisher.publishEvent(new ArticleChangedEvent(this, articleId, ArticleChangedEvent.Type.PUBLISH_CHANGED));
+        //改期后旧的时间轮任务认领不到计划行，不会生效
+        enqueue(new Task(articleId, time));
+        return time;
+    }
+
+    @Override
+    @Transactional
+    public boolean unschedule(Integer articleId, Integer userId, boolean admin) {
+        articleAccessService.checkAuthorOrAdmin(articleId, userId, admin);
+        ArticlePublishSchedule row = articlePublishScheduleMapper.selectById(articleId);
+        //与到期发布一样按 (文章id, 发布时间) 删除来认领，已被其他节点发布或改期的计划不再还原
+        if (row == null || articlePublishScheduleMapper.claim(articleId, row.getPublishTime()) == 0) {
+            return false;
+        }
+        articlesMapper.restorePublishState(articleId, row.getPreviousStatus(), row.getPreviousPublishTime());
+        eventPublisher.publishEvent(new ArticleChangedEvent(this, articleId, ArticleChangedEvent.Type.PUBLISH_CHANGED));
+        return true;
+    }
+
+    @Override
+    public boolean cancel(Integer articleId) {
+        return articlePublishScheduleMapper.deleteById(articleId) > 0;
+    }
+
+    /**
+     * 放入时间轮，已到期的交给定时线程立即执行
+     * @return 是否为新出现的计划
+     */
+    private boolean enqueue(Task task) {
+        TimingWheel<Task> current = wheel;
+        if (current == null || !scheduled.add(task)) {
+            return false;
+        }
+        long dueAt = task.publishTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        if (!current.add(task, dueAt)) {
+            timer.execute(() -> fire(task));
+        }
+        return true;
+    }
+
+    private void tick() {
+        try {
+            for (Task task : wheel.advance(System.currentTimeMillis())) {
+                fire(task);
+            }
+        } catch (Exception e) {
+            //异常不能抛出定时线程，否则后续不再执行
+            logger.error("定时发布时间轮推进失败", e);
+        }
+    }
+
+    /**
+     * 到期：认领计划并发布文章
+     */
+    private void fire(Task task) {
+        Boolean claimed;
+        try {
+            claimed = transactionTemplate.execute(status -> {
+                if (articlePublishScheduleMapper.claim(task.articleId, task.publishTime) == 0) {
+                    return false;
+                }
+                articlesMapper.publishAt(task.articleId, task.publishTime);
+                return true;
+            });
+        } catch (Exception e) {
+            logger.error("文章{}定时发布失败，{}ms后重试", task.articleId, RETRY_DELAY_MS, e);
+            wheel.add(task, System.currentTimeMillis() + RETRY_DELAY_MS);
+            return;
+        }
+        scheduled.remove(task);
+        if (Boolean.TRUE.equals(claimed)) {
+            logger.info("文章{}已按计划于{}发布", task.articleId, task.publishTime);
+        }
+        //无论由哪个节点发布，本节点的缓存、排行都要刷新
+        notifyPublished(task);
+    }
+
+    /**
+     * 每个计划在本节点只发布一次变更事件
+     */
+    private void notifyPublished(Task task) {
+        if (handled.add(task)) {
+            eventPublisher.publishEvent(new ArticleChangedEvent(this, task.articleId, ArticleChangedEvent.Type.PUBLISH_CHANGED));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.po.ArticleRevisions;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.vo.ArticleRevisionVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticleRevisionsMapper;
+import com.example.weijiahome.service.IArticleAccessService;
+import com.example.weijiahome.service.IArticleRevisionService;
+import com.example.weijiahome.utils.LineDelta;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 文章修订历史服务实现类
+ * 版本号 1、1+N、1+2N… 存全文快照（N为快照间隔），其余版本存与上一版本的按行差异，均gzip压缩
+ * 差异过大（超过编辑行数上限或不比全文小）时提前存快照
+ */
+@Service
+public class ArticleRevisionServiceImpl implements IArticleRevisionService {
+
+    /**
+     * 单次差异允许的最大编辑行数，超过时直接存快照
+     */
+    private static final int MAX_DELTA_EDITS = 2000;
+
+    @Autowired
+    private ArticleRevisionsMapper articleRevisionsMapper;
+    @Autowired
+    private IArticleAccessService articleAccessService;
+
+    @Value("${blog.revision.snapshot-interval:10}")
+    private int snapshotInterval;
+
+    @Override
+    public void recordCreate(Articles article) {
+        insertSnapshot(article.getId(), 1, article.getTitle(), article.getContent());
+    }
+
+    @Override
+    public void recordCreates(List<Articles> articles) {
+        if (articles.isEmpty()) {
+            return;
+        }
+        List<ArticleRevisions> rows = new ArrayList<>(articles.size());
+        for (Articles article : articles) {
+            rows.add(row(article.getId(), 1, true, article.getTitle(), nullToEmpty(article.getContent())));
+        }
+        articleRevisionsMapper.insertBatch(rows);
+    }
+
+    @Override
+    public void recordEdit(Articles before, Articles after) {
+        Integer articleId = after.getId();
+        ArticleRevisions latest = articleRevisionsMapper.selectLatest(articleId);
+        String previous = nullToEmpty(before.getContent());
+        if (latest == null || !matches(latest, previous)) {
+            //没有历史，或正文被绕过本服务修改过：以修改前的内容作为新的基准快照
+            int revision = latest == null ? 1 : latest.getRevision() + 1;
+            insertSnapshot(articleId, revision, before.getTitle(), previous);
+            latest = new ArticleRevisions().setRevision(revision);
+        }
+        String content = nullToEmpty(after.getContent());
+        if (Objects.equals(before.getTitle(), after.getTitle()) && previous.equals(content)) {
+            return;
+        }
+        int revision = latest.getRevision() + 1;
+        if ((revision - 1) % snapshotInterval == 0) {
+            insertSnapshot(articleId, revision, after.getTitle(), content);
+            return;
+        }
+        String delta = LineDelta.encode(previous, content, MAX_DELTA_EDITS);
+        byte[] deltaData = delta == null ? null : gzip(delta);
+        byte[] fullData = gzip(content);
+        if (deltaData == null || deltaData.length >= fullData.length) {
+            insert(articleId, revision, true, after.getTitle(), fullData, content);
+        } else {
+            insert(articleId, revision, false, after.getTitle(), deltaData, content);
+        }
+    }
+
+    @Override
+    public List<ArticleRevisionVO> listRevisions(Integer articleId, Integer userId, boolean admin) {
+        //历史版本包含作者删改前的内容，不对其他用户开放
+        articleAccessService.checkAuthorOrAdmin(articleId, userId, admin);
+        return articleRevisionsMapper.listRevisions(articleId);
+    }
+
+    @Override
+    public ArticleRevisionVO getRevision(Integer articleId, Integer revision, Integer userId, boolean admin) {
+        articleAccessService.checkAuthorOrAdmin(articleId, userId, admin);
+        List<ArticleRevisions> chain = articleRevisionsMapper.selectChain(articleId, revision);
+        if (chain.isEmpty() || !chain.get(chain.size() - 1).getRevision().equals(revision)) {
+            throw new BusinessException("版本不存在");
+        }
+        //从快照开始依次应用差异
+        String content = null;
+        for (ArticleRevisions row : chain) {
+            String data = gunzip(row.getData());
+            content = Boolean.TRUE.equals(row.getSnapshot()) ? data : LineDelta.apply(content, data);
+        }
+        ArticleRevisions target = chain.get(chain.size() - 1);
+        ArticleRevisionVO vo = new ArticleRevisionVO();
+        vo.setRevision(revision);
+        vo.setTitle(target.getTitle());
+        vo.setSnapshot(target.getSnapshot());
+        vo.setContentLength(content.length());
+        vo.setStoredBytes(target.getData().length);
+        vo.setContent(content);
+        return vo;
+    }
+
+    @Override
+    public void deleteRevisions(Integer articleId) {
+        QueryWrapper<ArticleRevisions> qw = new QueryWrapper<>();
+        qw.eq("article_id", articleId);
+        articleRevisionsMapper.delete(qw);
+    }
+
+    private void insertSnapshot(Integer articleId, int revision, String title, String content) {
+        String text = nullToEmpty(content);
+        insert(articleId, revision, true, title, gzip(text), text);
+    }
+
+    private void insert(Integer articleId, int revision, boolean snapshot, String title, byte[] data, String content) {
+        articleRevisionsMapper.insert(row(articleId, revision, snapshot, title, data, content));
+    }
+
+    private static ArticleRevisions row(Integer articleId, int revision, boolean snapshot, String title, String content) {
+        return row(articleId, revision, snapshot, title, gzip(content), content);
+    }
+
+    private static ArticleRevisions row(Integer articleId, int revision, boolean snapshot, String title,
+                                        byte[] data, String content) {
+        ArticleRevisions row = new ArticleRevisions();
+        row.setArticleId(articleId)
+                .setRevision(revision)
+                .setSnapshot(snapshot)
+                .setTitle(nullToEmpty(title))
+                .setData(data)
+                .setContentLength(content.length())
+                .setContentHash(hash(content));
+        return row;
+    }
+
+    /**
+     * 最新版本记录的正文是否就是修改前的正文；旧记录没有摘要时只能比较长度
+     */
+    private static boolean matches(ArticleRevisions latest, String content) {
+        if (latest.getContentHash() == null) {
+            return latest.getContentLength() == content.length();
+        }
+        return latest.getContentHash().equals(hash(content));
+    }
+
+    private static String hash(String content) {
+        return DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String nullToEmpty(String text) {
+        return text == null ? "" : text;
+    }
+
+    private static byte[] gzip(String text) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String gunzip(byte[] data) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleSearchService;
+import com.example.weijiahome.utils.BackgroundBuilder;
+import com.example.weijiahome.utils.InvertedIndex;
+import com.example.weijiahome.utils.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * 文章全文检索服务实现类
+ * 标题、摘要、正文按 3:2:1 的权重合并词频后写入同一个倒排索引
+ */
+@Service
+public class ArticleSearchServiceImpl implements IArticleSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSearchServiceImpl.class);
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUMMARY_WEIGHT = 2;
+    private static final int CONTENT_WEIGHT = 1;
+    /**
+     * 启动建索引时每批读取的文章数
+     */
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private volatile boolean ready = false;
+    private final BackgroundBuilder builder = new BackgroundBuilder("article-search-indexer", this::rebuild);
+    /**
+     * 建索引期间已经由变更事件写入的文章，全量扫描时跳过，避免用旧数据覆盖
+     */
+    private final Set<Integer> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+    /**
+     * 保证“是否已建好/是否已被事件写过”的判断与随后的索引写入是原子的：
+     * 全量扫描不会在事件写入新内容之后再用旧内容覆盖，事件也不会在置为已建好之后再登记
+     */
+    private final Object buildLock = new Object();
+
+    /**
+     * 应用启动后在后台线程中全量建索引，建好之前检索请求回退到数据库
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.start();
+    }
+
+    /**
+     * 构建失败（如启动时数据库暂时不可用）时定期重试，建好之后不再执行
+     */
+    @Scheduled(initialDelayString = "${blog.index.rebuild-retry-ms:60000}",
+            fixedDelayString = "${blog.index.rebuild-retry-ms:60000}")
+    public void retryBuild() {
+        if (!ready) {
+            builder.start();
+        }
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        int afterId = 0;
+        while (true) {
+            List<Articles> batch = articlesMapper.selectForIndex(afterId, BUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            synchronized (buildLock) {
+                for (Articles article : batch) {
+                    if (!touchedDuringBuild.contains(article.getId())) {
+                        indexArticle(article);
+                    }
+                    afterId = article.getId();
+                }
+            }
+        }
+        synchronized (buildLock) {
+            ready = true;
+            touchedDuringBuild.clear();
+        }
+        logger.info("文章检索索引构建完成，共{}篇，耗时{}ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public InvertedIndex.Hits search(String keyword, int limit, IntPredicate filter) {
+        if (!ready || keyword == null) {
+            return null;
+        }
+        String trimmed = keyword.trim();
+        //单个字符无法由二元组索引表达，交给数据库模糊查询
+        if (trimmed.codePointCount(0, trimmed.length()) < 2) {
+            return null;
+        }
+        List<String> terms = TextTokenizer.tokenize(trimmed);
+        if (terms.isEmpty()) {
+            return null;
+        }
+        return index.search(terms, limit, filter);
+    }
+
+    /**
+     * 文章变更后增量更新索引（事务提交后执行）
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Integer id = event.getArticleId();
+        Articles article = event.getType() == ArticleChangedEvent.Type.DELETED
+                ? null : articlesMapper.selectById(id);
+        synchronized (buildLock) {
+            if (!ready) {
+                touchedDuringBuild.add(id);
+            }
+            if (article == null) {
+                index.remove(id);
+            } else {
+                indexArticle(article);
+            }
+        }
+    }
+
+    /**
+     * 导入的一批文章直接用事件中的内容建索引，不再逐篇查库
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        synchronized (buildLock) {
+            for (Articles article : event.getArticles()) {
+                if (!ready) {
+                    touchedDuringBuild.add(article.getId());
+                }
+                indexArticle(article);
+            }
+        }
+    }
+
+    private void indexArticle(Articles article) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addTerms(termFrequencies, article.getTitle(), TITLE_WEIGHT);
+        addTerms(termFrequencies, article.getSummary(), SUMMARY_WEIGHT);
+        addTerms(termFrequencies, article.getContent(), CONTENT_WEIGHT);
+        index.put(article.getId(), termFrequencies);
+    }
+
+    private static void addTerms(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String term : TextTokenizer.tokenize(text)) {
+            termFrequencies.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.po.ArticleShareStats;
+import com.example.weijiahome.entity.vo.ArticleShareStatsVO;
+import com.example.weijiahome.entity.vo.ArticleShareVO;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticleShareStatsMapper;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import com.example.weijiahome.service.IArticleShareService;
+import com.example.weijiahome.service.IShareCodeService;
+import com.example.weijiahome.utils.CounterBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 文章分享服务实现类
+ * 总分享数走文章计数服务（CASE批量更新articles.share_count），分平台次数按文章分桶累加，定时多行upsert写入
+ * 平台只接受配置中的固定列表，其余记为other，每篇文章的统计行数因此有上限
+ */
+@Service
+public class ArticleShareServiceImpl implements IArticleShareService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleShareServiceImpl.class);
+    /**
+     * 无法识别的平台统一记为other
+     */
+    private static final String OTHER_PLATFORM = "other";
+    /**
+     * 每条upsert语句最多包含的行数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    @Autowired
+    private IShareCodeService shareCodeService;
+    @Autowired
+    private ArticleShareStatsMapper articleShareStatsMapper;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+    @Autowired
+    private IArticleDetailCacheService articleDetailCacheService;
+
+    /**
+     * 可以区分统计的平台（小写）
+     */
+    @Value("${blog.share.platforms:wechat,moments,weibo,qq,qzone,douban,zhihu,link,email}")
+    private Set<String> platforms;
+
+    /**
+     * 文章id -> 各平台的分享增量
+     */
+    private final Map<Integer, CounterBuffer<String>> platformDeltas = new ConcurrentHashMap<>();
+
+    @Override
+    public ArticleShareVO share(Integer articleId, String platform) {
+        // 1. 校验文章是否存在（读详情缓存）
+        ArticleVO article = articleDetailCacheService.getArticleDetail(articleId);
+        if (article == null) {
+            throw new BusinessException("文章不存在");
+        }
+
+        // 2. 分享码由文章id算出，不读写数据库
+        String shareCode = shareCodeService.codeOf(articleId);
+
+        // 3. 累加分享次数（总数和分平台都只写内存）
+        articleCounterService.increment(articleId, ArticleCounterType.SHARE, 1);
+        //在 compute 中累加，与落库时移除空缓冲互斥，增量不会落到已移除的缓冲上
+        platformDeltas.compute(articleId, (id, buffer) -> {
+            CounterBuffer<String> target = buffer == null ? new CounterBuffer<>() : buffer;
+            target.add(normalizePlatform(platform), 1);
+            return target;
+        });
+
+        // 4. 拼接分享链接（替换为你的真实域名）
+        String baseUrl = "http://localhost:3000/article"; // 前端分享页面域名
+        String shareUrl = baseUrl + "/" + shareCode; // 最终分享链接
+
+        // 5. 封装响应结果，总分享数 = 已落库 + 内存增量
+        long base = article.getShareCount() == null ? 0 : article.getShareCount();
+        ArticleShareVO vo = new ArticleShareVO();
+        vo.setShareUrl(shareUrl);
+        vo.setShareCount((int) (base + articleCounterService.pending(articleId, ArticleCounterType.SHARE)));
+        return vo;
+    }
+
+    @Override
+    public ArticleShareStatsVO getShareStats(Integer articleId) {
+        ArticleVO article = articleDetailCacheService.getArticleDetail(articleId);
+        if (article == null) {
+            throw new BusinessException("文章不存在");
+        }
+        Map<String, Long> platforms = new HashMap<>();
+        QueryWrapper<ArticleShareStats> qw = new QueryWrapper<>();
+        qw.eq("article_id", articleId);
+        for (ArticleShareStats stats : articleShareStatsMapper.selectList(qw)) {
+            platforms.merge(stats.getPlatform(), stats.getShareCount(), Long::sum);
+        }
+        CounterBuffer<String> buffer = platformDeltas.get(articleId);
+        if (buffer != null) {
+            buffer.snapshot().forEach((platform, delta) -> platforms.merge(platform, delta, Long::sum));
+        }
+        //按次数从高到低排列
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        platforms.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+
+        long base = article.getShareCount() == null ? 0 : article.getShareCount();
+        ArticleShareStatsVO vo = new ArticleShareStatsVO();
+        vo.setArticleId(articleId);
+        vo.setTotal(base + articleCounterService.pending(articleId, ArticleCounterType.SHARE));
+        vo.setPlatforms(sorted);
+        return vo;
+    }
+
+    /**
+     * 定时把分平台增量写回数据库
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${blog.counter.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        List<ArticleShareStats> batch = new ArrayList<>();
+        for (Map.Entry<Integer, CounterBuffer<String>> entry : platformDeltas.entrySet()) {
+            Integer articleId = entry.getKey();
+            entry.getValue().drain().forEach((platform, delta) -> batch.add(new ArticleShareStats()
+                    .setArticleId(articleId)
+                    .setPlatform(platform)
+                    .setShareCount(delta)));
+            //所有平台都已空闲移除的文章，整个缓冲一起移除
+            platformDeltas.computeIfPresent(articleId, (id, buffer) -> buffer.size() == 0 ? null : buffer);
+            if (batch.size() >= FLUSH_BATCH_SIZE) {
+                flushBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(batch);
+        }
+    }
+
+    private void flushBatch(List<ArticleShareStats> batch) {
+        try {
+            articleShareStatsMapper.upsertDeltas(batch);
+        } catch (Exception e) {
+            //写库失败时放回缓冲，下次再刷
+            for (ArticleShareStats stats : batch) {
+                platformDeltas.compute(stats.getArticleId(), (id, buffer) -> {
+                    CounterBuffer<String> target = buffer == null ? new CounterBuffer<>() : buffer;
+                    target.add(stats.getPlatform(), stats.getShareCount());
+                    return target;
+                });
+            }
+            logger.error("分享统计写库失败，共{}条，下次重试", batch.size(), e);
+        }
+    }
+
+    /**
+     * 应用关闭前把剩余增量写回
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * 平台名统一小写，不在配置列表中的记为other
+     * 按固定列表而不是按内存中已有的平台数限制：缓冲空闲移除后重新计数，统计表中的行数不受内存上限约束
+     */
+    private String normalizePlatform(String platform) {
+        if (platform == null) {
+            return OTHER_PLATFORM;
+        }
+        String normalized = platform.trim().toLowerCase(Locale.ROOT);
+        return platforms.contains(normalized) ? normalized : OTHER_PLATFORM;
+    }
+}
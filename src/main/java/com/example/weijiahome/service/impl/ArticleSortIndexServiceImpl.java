@@ -0,0 +1,344 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.enums.ArticleSortField;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticleCountersFlushedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleSortIndexService;
+import com.example.weijiahome.utils.BackgroundBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.IntPredicate;
+
+/**
+ * 文章列表排序索引服务实现类
+ * 每种排序一个 ConcurrentSkipListSet，元素按 (排序键, id) 升序；降序翻页从尾部反向遍历
+ * 计数类排序键为库中的值，计数批量落库后按增量调整（在落库线程上，互动请求不碰索引），排序最多落后一个落库周期；
+ * 调整时先插入新位置再删除旧位置，读取方按id去重，并发更新时同一篇文章不会丢失或重复出现
+ */
+@Service
+public class ArticleSortIndexServiceImpl implements IArticleSortIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleSortIndexServiceImpl.class);
+
+    /**
+     * 偏移分页最多服务到这个位置（前若干页），更深的页回退到SQL；游标翻页不受限制
+     */
+    private static final int MAX_OFFSET = 1000;
+    /**
+     * 带筛选条件时一页最多遍历的索引项，筛选命中过少时回退到SQL
+     */
+    private static final int MAX_SCAN = 20000;
+    /**
+     * 启动时每批读取的文章数
+     */
+    private static final int BUILD_BATCH_SIZE = 1000;
+    private static final ArticleSortField[] INDEXED = {
+            ArticleSortField.CREATE_TIME,
+            ArticleSortField.LIKE_COUNT,
+            ArticleSortField.VIEW_COUNT,
+            ArticleSortField.COMMENT_COUNT
+    };
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+
+    private final Map<ArticleSortField, NavigableSet<SortKey>> indexes = new EnumMap<>(ArticleSortField.class);
+    /**
+     * 文章id -> 各排序当前的排序键（下标同 INDEXED），用于更新时找到旧位置
+     */
+    private final Map<Integer, long[]> scores = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+    private final BackgroundBuilder builder = new BackgroundBuilder("article-sort-indexer", this::rebuild);
+    /**
+     * 构建期间发生变化、尚未入索引的文章，构建完成后重新读取
+     */
+    private final Set<Integer> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    public ArticleSortIndexServiceImpl() {
+        for (ArticleSortField field : INDEXED) {
+            indexes.put(field, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    /**
+     * 排序键 + id，id 保证全序，与SQL中 ORDER BY 排序列, id 的顺序一致
+     */
+    private static final class SortKey implements Comparable<SortKey> {
+        final long score;
+        final int id;
+
+        SortKey(long score, int id) {
+            this.score = score;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            int result = Long.compare(score, other.score);
+            return result != 0 ? result : Integer.compare(id, other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof SortKey && compareTo((SortKey) o) == 0;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(score) * 31 + id;
+        }
+    }
+
+    /**
+     * 应用启动后在后台线程中全量建索引，建好之前列表查询走SQL
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.start();
+    }
+
+    /**
+     * 构建失败（如启动时数据库暂时不可用）时定期重试，建好之后不再执行
+     */
+    @Scheduled(initialDelayString = "${blog.index.rebuild-retry-ms:60000}",
+            fixedDelayString = "${blog.index.rebuild-retry-ms:60000}")
+    public void retryBuild() {
+        if (!ready) {
+            builder.start();
+        }
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        int afterId = 0;
+        while (true) {
+            List<Articles> batch = articlesMapper.selectForSortIndex(afterId, BUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            for (Articles article : batch) {
+                put(article);
+                afterId = article.getId();
+            }
+        }
+        ready = true;
+        //构建期间的互动可能落在尚未入索引的文章上，重新读取这些文章
+        for (Integer id : touchedDuringBuild) {
+            reload(id);
+        }
+        touchedDuringBuild.clear();
+        logger.info("文章排序索引构建完成，共{}篇，耗时{}ms", scores.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<Integer> page(ArticleSortField field, boolean asc, Object cursorValue, Integer cursorId,
+                              int offset, int limit, IntPredicate filter) {
+        NavigableSet<SortKey> index = indexes.get(field);
+        if (!ready || index == null) {
+            return null;
+        }
+        boolean byCursor = cursorValue != null && cursorId != null;
+        if (!byCursor && offset + limit > MAX_OFFSET) {
+            return null;
+        }
+        NavigableSet<SortKey> view;
+        if (byCursor) {
+            SortKey after = new SortKey(scoreOf(cursorValue), cursorId);
+            view = asc ? index.tailSet(after, false) : index.headSet(after, false).descendingSet();
+        } else {
+            view = asc ? index : index.descendingSet();
+        }
+        List<Integer> ids = new ArrayList<>(limit);
+        Set<Integer> seen = new HashSet<>();
+        int skipped = 0;
+        int scanned = 0;
+        for (SortKey key : view) {
+            if (ids.size() >= limit) {
+                break;
+            }
+            if (filter != null && ++scanned > MAX_SCAN) {
+                return null;
+            }
+            if ((filter != null && !filter.test(key.id)) || !seen.add(key.id)) {
+                continue;
+            }
+            if (skipped < offset && !byCursor) {
+                skipped++;
+                continue;
+            }
+            ids.add(key.id);
+        }
+        return ids;
+    }
+
+    @Override
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * 浏览、点赞、评论增量落库后调整对应排序中的位置
+     */
+    @EventListener
+    public void onCountersFlushed(ArticleCountersFlushedEvent event) {
+        ArticleSortField field = fieldOf(event.getType());
+        if (field == null) {
+            return;
+        }
+        int slot = slotOf(field);
+        event.getDeltas().forEach((id, delta) -> {
+            long[] current = scores.computeIfPresent(id, (key, old) -> {
+                long[] updated = old.clone();
+                updated[slot] = Math.max(0, old[slot] + delta);
+                move(field, id, old[slot], updated[slot]);
+                return updated;
+            });
+            if (current == null && !ready) {
+                touchedDuringBuild.add(id);
+            }
+        });
+    }
+
+    /**
+     * 新建的文章加入索引，删除的移出；修改不影响排序键
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Integer id = event.getArticleId();
+        if (event.getType() == ArticleChangedEvent.Type.DELETED) {
+            remove(id);
+        } else if (event.getType() == ArticleChangedEvent.Type.CREATED) {
+            if (!ready) {
+                touchedDuringBuild.add(id);
+            }
+            reload(id);
+        }
+    }
+
+    /**
+     * 导入的一批文章按事件中的值加入索引（新文章的计数都为0），不再逐篇查库
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        for (Articles article : event.getArticles()) {
+            if (!ready) {
+                touchedDuringBuild.add(article.getId());
+            }
+            put(article);
+        }
+    }
+
+    private void reload(Integer id) {
+        Articles article = articlesMapper.selectById(id);
+        if (article == null) {
+            remove(id);
+        } else {
+            put(article);
+        }
+    }
+
+    /**
+     * 按库中的值写入（或替换）一篇文章的全部排序键，尚未落库的增量在落库后再合并
+     */
+    private void put(Articles article) {
+        Integer id = article.getId();
+        long[] values = new long[INDEXED.length];
+        values[slotOf(ArticleSortField.CREATE_TIME)] = epochMillis(article.getCreateTime());
+        values[slotOf(ArticleSortField.LIKE_COUNT)] = nullToZero(article.getLikeCount());
+        values[slotOf(ArticleSortField.VIEW_COUNT)] = nullToZero(article.getViewCount());
+        values[slotOf(ArticleSortField.COMMENT_COUNT)] = nullToZero(article.getCommentCount());
+        scores.compute(id, (key, old) -> {
+            for (int i = 0; i < INDEXED.length; i++) {
+                if (old == null) {
+                    indexes.get(INDEXED[i]).add(new SortKey(values[i], id));
+                } else {
+                    move(INDEXED[i], id, old[i], values[i]);
+                }
+            }
+            return values;
+        });
+    }
+
+    private void remove(Integer id) {
+        scores.computeIfPresent(id, (key, old) -> {
+            for (int i = 0; i < INDEXED.length; i++) {
+                indexes.get(INDEXED[i]).remove(new SortKey(old[i], id));
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 先插入新位置再删除旧位置，并发读取时文章不会短暂消失
+     */
+    private void move(ArticleSortField field, int id, long oldScore, long newScore) {
+        if (oldScore == newScore) {
+            return;
+        }
+        NavigableSet<SortKey> index = indexes.get(field);
+        index.add(new SortKey(newScore, id));
+        index.remove(new SortKey(oldScore, id));
+    }
+
+    /**
+     * 游标中的排序键转换成索引中的数值
+     */
+    private static long scoreOf(Object cursorValue) {
+        if (cursorValue instanceof LocalDateTime) {
+            return epochMillis((LocalDateTime) cursorValue);
+        }
+        return ((Number) cursorValue).longValue();
+    }
+
+    private static ArticleSortField fieldOf(ArticleCounterType type) {
+        switch (type) {
+            case VIEW:
+                return ArticleSortField.VIEW_COUNT;
+            case LIKE:
+                return ArticleSortField.LIKE_COUNT;
+            case COMMENT:
+                return ArticleSortField.COMMENT_COUNT;
+            default:
+                return null;
+        }
+    }
+
+    private static int slotOf(ArticleSortField field) {
+        for (int i = 0; i < INDEXED.length; i++) {
+            if (INDEXED[i] == field) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(field.name());
+    }
+
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static long nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
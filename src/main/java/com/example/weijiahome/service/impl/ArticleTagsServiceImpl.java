@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.weijiahome.entity.po.Tags;
 import com.example.weijiahome.mapper.ArticleTagsMapper;
+import com.example.weijiahome.mapper.TagsMapper;
 import com.example.weijiahome.entity.po.ArticleTags;
 
 import com.example.weijiahome.service.IArticleTagsService;
@@ -13,7 +14,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -30,6 +39,8 @@ public class ArticleTagsServiceImpl extends ServiceImpl<ArticleTagsMapper, Artic
     private ArticleTagsMapper articleTagsMapper;
     @Autowired
     private ITagsService tagsService;
+    @Autowired
+    private TagsMapper tagsMapper;
     @Override
     public Page<Integer> getArticles(Integer id, Integer page, Integer pageSize) {
         //构建分页对象
@@ -56,16 +67,91 @@ public class ArticleTagsServiceImpl extends ServiceImpl<ArticleTagsMapper, Artic
     //根据文章id查看 标签得到标签对象的集合
     @Override
     public List<Tags> getTags(Integer id) {
-        List<Tags> tags = new ArrayList<>();
-        QueryWrapper<ArticleTags> qw =new QueryWrapper<>();
-        qw.eq("article_id",id);
+        List<Tags> tags = getTagsByArticleIds(Collections.singletonList(id)).get(id);
+        return tags == null ? new ArrayList<>() : tags;
+    }
+
+    /**
+     * 批量查询多篇文章的标签
+     * @param articleIds 文章id集合
+     */
+    @Override
+    public Map<Integer, List<Tags>> getTagsByArticleIds(Collection<Integer> articleIds) {
+        Map<Integer, List<Tags>> result = new HashMap<>();
+        if (articleIds == null || articleIds.isEmpty()) {
+            return result;
+        }
+        //1. 一次查出这些文章的全部 文章-标签 关联
+        QueryWrapper<ArticleTags> qw = new QueryWrapper<>();
+        qw.in("article_id", articleIds);
         List<ArticleTags> articleTags = articleTagsMapper.selectList(qw);
+        if (articleTags.isEmpty()) {
+            return result;
+        }
+        //2. 去重后一次查出全部标签
+        Set<Integer> tagIds = articleTags.stream()
+                .map(ArticleTags::getTagId)
+                .collect(Collectors.toSet());
+        Map<Integer, Tags> tagMap = tagsMapper.selectBatchIds(tagIds).stream()
+                .collect(Collectors.toMap(Tags::getId, Function.identity()));
+        //3. 在内存中按文章id拼装
         for (ArticleTags articleTag : articleTags) {
-            Integer tagId = articleTag.getTagId();
-            Tags byId = tagsService.getById(tagId);
-            tags.add(byId);
+            Tags tag = tagMap.get(articleTag.getTagId());
+            if (tag != null) {
+                result.computeIfAbsent(articleTag.getArticleId(), k -> new ArrayList<>()).add(tag);
+            }
         }
+        return result;
+    }
 
-        return tags;
+    /**
+     * 同步文章标签
+     * @param articleId 文章id
+     * @param tagIds 文章最新的标签id
+     */
+    @Override
+    public void syncTags(Integer articleId, Collection<Integer> tagIds) {
+        Set<Integer> target = new TreeSet<>();
+        if (tagIds != null) {
+            tagIds.stream().filter(Objects::nonNull).forEach(target::add);
+        }
+        //1. 查出当前关联，统计每个标签的行数（旧数据里可能有重复行）
+        QueryWrapper<ArticleTags> qw = new QueryWrapper<>();
+        qw.select("tag_id").eq("article_id", articleId);
+        Map<Integer, Integer> current = new HashMap<>();
+        for (ArticleTags articleTag : articleTagsMapper.selectList(qw)) {
+            current.merge(articleTag.getTagId(), 1, Integer::sum);
+        }
+        //2. 计算差集：新增的标签、去掉的标签
+        List<Integer> added = target.stream()
+                .filter(tagId -> !current.containsKey(tagId))
+                .collect(Collectors.toList());
+        List<Integer> removed = current.keySet().stream()
+                .filter(tagId -> !target.contains(tagId))
+                .sorted()
+                .collect(Collectors.toList());
+        //保留的标签若有重复行，删掉后只写回一行，文章数不变
+        List<Integer> duplicated = current.entrySet().stream()
+                .filter(e -> e.getValue() > 1 && target.contains(e.getKey()))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        //3. 删除和插入各一条SQL
+        List<Integer> toDelete = new ArrayList<>(removed);
+        toDelete.addAll(duplicated);
+        if (!toDelete.isEmpty()) {
+            articleTagsMapper.deleteTags(articleId, toDelete);
+        }
+        List<Integer> toInsert = new ArrayList<>(added);
+        toInsert.addAll(duplicated);
+        if (!toInsert.isEmpty()) {
+            articleTagsMapper.insertTags(articleId, toInsert);
+        }
+        //4. 标签的文章数按同样的增量调整
+        if (!added.isEmpty()) {
+            tagsMapper.addArticleCount(added, 1);
+        }
+        if (!removed.isEmpty()) {
+            tagsMapper.addArticleCount(removed, -1);
+        }
     }
 }
@@ -0,0 +1,278 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.po.ArticleCategories;
+import com.example.weijiahome.entity.po.ArticleTags;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticleCategoriesMapper;
+import com.example.weijiahome.mapper.ArticleTagsMapper;
+import com.example.weijiahome.service.IArticleTaxonomyIndexService;
+import com.example.weijiahome.utils.BackgroundBuilder;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 文章分类/标签倒排索引服务实现类
+ * 启动后全量加载关系表，之后随文章变更事件逐篇更新
+ */
+@Service
+public class ArticleTaxonomyIndexServiceImpl implements IArticleTaxonomyIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleTaxonomyIndexServiceImpl.class);
+
+    @Autowired
+    private ArticleCategoriesMapper articleCategoriesMapper;
+    @Autowired
+    private ArticleTagsMapper articleTagsMapper;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /**
+     * 分类id -> 文章id集合
+     */
+    private Map<Integer, RoaringBitmap> byCategory = new HashMap<>();
+    /**
+     * 标签id -> 文章id集合
+     */
+    private Map<Integer, RoaringBitmap> byTag = new HashMap<>();
+    /**
+     * 文章id -> 所属分类、标签，更新时用来从旧的集合中移除
+     */
+    private Map<Integer, List<Integer>> articleCategories = new HashMap<>();
+    private Map<Integer, List<Integer>> articleTags = new HashMap<>();
+
+    private volatile boolean ready = false;
+    private final BackgroundBuilder builder = new BackgroundBuilder("article-taxonomy-indexer", this::rebuild);
+    /**
+     * 加载期间发生变更的文章，加载完成后重新读取
+     */
+    private final Set<Integer> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.start();
+    }
+
+    /**
+     * 构建失败（如启动时数据库暂时不可用）时定期重试，建好之后不再执行
+     */
+    @Scheduled(initialDelayString = "${blog.index.rebuild-retry-ms:60000}",
+            fixedDelayString = "${blog.index.rebuild-retry-ms:60000}")
+    public void retryBuild() {
+        if (!ready) {
+            builder.start();
+        }
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Integer, RoaringBitmap> categories = new HashMap<>();
+        Map<Integer, List<Integer>> categoriesOfArticle = new HashMap<>();
+        QueryWrapper<ArticleCategories> categoryQw = new QueryWrapper<>();
+        categoryQw.select("article_id", "category_id");
+        for (ArticleCategories relation : articleCategoriesMapper.selectList(categoryQw)) {
+            categories.computeIfAbsent(relation.getCategoryId(), id -> new RoaringBitmap()).add(relation.getArticleId());
+            categoriesOfArticle.computeIfAbsent(relation.getArticleId(), id -> new ArrayList<>()).add(relation.getCategoryId());
+        }
+        Map<Integer, RoaringBitmap> tags = new HashMap<>();
+        Map<Integer, List<Integer>> tagsOfArticle = new HashMap<>();
+        QueryWrapper<ArticleTags> tagQw = new QueryWrapper<>();
+        tagQw.select("article_id", "tag_id");
+        for (ArticleTags relation : articleTagsMapper.selectList(tagQw)) {
+            tags.computeIfAbsent(relation.getTagId(), id -> new RoaringBitmap()).add(relation.getArticleId());
+            tagsOfArticle.computeIfAbsent(relation.getArticleId(), id -> new ArrayList<>()).add(relation.getTagId());
+        }
+        categories.values().forEach(RoaringBitmap::runOptimize);
+        tags.values().forEach(RoaringBitmap::runOptimize);
+
+        List<Integer> touched;
+        lock.writeLock().lock();
+        try {
+            byCategory = categories;
+            byTag = tags;
+            articleCategories = categoriesOfArticle;
+            articleTags = tagsOfArticle;
+            ready = true;
+            //与 deferIfBuilding 在同一把锁下取走登记的文章，之后到达的事件看到 ready 会自己更新
+            touched = new ArrayList<>(touchedDuringBuild);
+            touchedDuringBuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        //加载期间变更过的文章，用最新的关系覆盖
+        for (Integer articleId : touched) {
+            reindex(articleId);
+        }
+        logger.info("文章分类/标签索引构建完成，共{}个分类、{}个标签，耗时{}ms", categories.size(), tags.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public RoaringBitmap match(Integer categoryId, Collection<Integer> tagIds, boolean matchAll) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            List<RoaringBitmap> required = new ArrayList<>();
+            if (categoryId != null) {
+                required.add(byCategory.getOrDefault(categoryId, new RoaringBitmap()));
+            }
+            if (tagIds != null && !tagIds.isEmpty()) {
+                List<RoaringBitmap> tagSets = new ArrayList<>();
+                for (Integer tagId : new LinkedHashSet<>(tagIds)) {
+                    tagSets.add(byTag.getOrDefault(tagId, new RoaringBitmap()));
+                }
+                if (matchAll) {
+                    required.addAll(tagSets);
+                } else {
+                    required.add(FastAggregation.or(tagSets.iterator()));
+                }
+            }
+            if (required.isEmpty()) {
+                return null;
+            }
+            if (required.size() == 1) {
+                return required.get(0).clone();
+            }
+            //从最小的集合开始求交
+            required.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+            return FastAggregation.and(required.iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 文章变更后（事务提交后）更新它的分类、标签
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        if (event.getType() == ArticleChangedEvent.Type.PUBLISH_CHANGED) {
+            return;
+        }
+        Integer articleId = event.getArticleId();
+        if (deferIfBuilding(List.of(articleId))) {
+            return;
+        }
+        if (event.getType() == ArticleChangedEvent.Type.DELETED) {
+            replace(articleId, new ArrayList<>(), new ArrayList<>());
+        } else {
+            reindex(articleId);
+        }
+    }
+
+    /**
+     * 导入的一批文章：分类、标签关系整批读两次后写入索引
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        List<Integer> articleIds = new ArrayList<>(event.getArticles().size());
+        event.getArticles().forEach(article -> articleIds.add(article.getId()));
+        if (deferIfBuilding(articleIds)) {
+            return;
+        }
+        Map<Integer, List<Integer>> categories = new HashMap<>();
+        QueryWrapper<ArticleCategories> categoryQw = new QueryWrapper<>();
+        categoryQw.select("article_id", "category_id").in("article_id", articleIds);
+        for (ArticleCategories relation : articleCategoriesMapper.selectList(categoryQw)) {
+            categories.computeIfAbsent(relation.getArticleId(), id -> new ArrayList<>()).add(relation.getCategoryId());
+        }
+        Map<Integer, List<Integer>> tags = new HashMap<>();
+        QueryWrapper<ArticleTags> tagQw = new QueryWrapper<>();
+        tagQw.select("article_id", "tag_id").in("article_id", articleIds);
+        for (ArticleTags relation : articleTagsMapper.selectList(tagQw)) {
+            tags.computeIfAbsent(relation.getArticleId(), id -> new ArrayList<>()).add(relation.getTagId());
+        }
+        for (Integer articleId : articleIds) {
+            replace(articleId, categories.getOrDefault(articleId, new ArrayList<>()),
+                    tags.getOrDefault(articleId, new ArrayList<>()));
+        }
+    }
+
+    /**
+     * 索引尚未建好时登记文章，由 rebuild 完成后统一重新读取
+     * 判断和登记在写锁下进行，不会在 rebuild 取走登记集合之后才登记而被遗漏
+     * @return 是否已登记（调用方无需再更新索引）
+     */
+    private boolean deferIfBuilding(Collection<Integer> articleIds) {
+        if (ready) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (ready) {
+                return false;
+            }
+            touchedDuringBuild.addAll(articleIds);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void reindex(Integer articleId) {
+        QueryWrapper<ArticleCategories> categoryQw = new QueryWrapper<>();
+        categoryQw.select("category_id").eq("article_id", articleId);
+        List<Integer> categories = new ArrayList<>();
+        articleCategoriesMapper.selectList(categoryQw).forEach(relation -> categories.add(relation.getCategoryId()));
+
+        QueryWrapper<ArticleTags> tagQw = new QueryWrapper<>();
+        tagQw.select("tag_id").eq("article_id", articleId);
+        List<Integer> tags = new ArrayList<>();
+        articleTagsMapper.selectList(tagQw).forEach(relation -> tags.add(relation.getTagId()));
+
+        replace(articleId, categories, tags);
+    }
+
+    private void replace(Integer articleId, List<Integer> categories, List<Integer> tags) {
+        lock.writeLock().lock();
+        try {
+            move(articleId, articleCategories, byCategory, categories);
+            move(articleId, articleTags, byTag, tags);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 把文章从旧的集合中移除，加入新的集合
+     */
+    private static void move(Integer articleId, Map<Integer, List<Integer>> ofArticle,
+                             Map<Integer, RoaringBitmap> postings, List<Integer> current) {
+        List<Integer> previous = ofArticle.remove(articleId);
+        if (previous != null) {
+            for (Integer key : previous) {
+                RoaringBitmap bitmap = postings.get(key);
+                if (bitmap != null) {
+                    bitmap.remove(articleId);
+                }
+            }
+        }
+        if (!current.isEmpty()) {
+            ofArticle.put(articleId, current);
+            for (Integer key : current) {
+                postings.computeIfAbsent(key, id -> new RoaringBitmap()).add(articleId);
+            }
+        }
+    }
+}
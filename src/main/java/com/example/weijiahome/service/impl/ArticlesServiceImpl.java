@@ -5,24 +5,32 @@ import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.weijiahome.entity.dto.CreatArticlesDTO;
 import com.example.weijiahome.entity.dto.GetArticlesDTO;
+import com.example.weijiahome.entity.enums.ArticleSortField;
+import com.example.weijiahome.entity.enums.InteractionType;
 import com.example.weijiahome.entity.po.*;
-import com.example.weijiahome.entity.vo.ArticleShareVO;
 import com.example.weijiahome.entity.vo.ArticleVO;
 import com.example.weijiahome.entity.vo.PageResultVO;
 import com.example.weijiahome.entity.vo.PaginationVO;
+import com.example.weijiahome.event.ArticleChangedEvent;
 import com.example.weijiahome.exception.BusinessException;
 import com.example.weijiahome.mapper.*;
 import com.example.weijiahome.service.*;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.example.weijiahome.utils.ShareCodeUtil;
+import com.example.weijiahome.utils.ArticleCursorUtil;
+import com.example.weijiahome.utils.InvertedIndex;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -35,11 +43,11 @@ import java.util.stream.Collectors;
  */
 @Service
 public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> implements IArticlesService {
+    /** 分类/标签候选集合超过该数量时不再转成 IN 列表，改由 SQL 的 EXISTS 子查询筛选 */
+    private static final int MAX_FILTER_IDS = 10000;
     @Autowired
     private ArticlesMapper articlesMapper;
     @Autowired
-    private ArticleTagsMapper articleTagsMapper;
-    @Autowired
     private TagsMapper tagsMapper;
     @Autowired
     private ArticleCategoriesMapper articleCategoriesMapper;
@@ -52,11 +60,26 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
     @Autowired
     private ICategoriesService categoriesService;
     @Autowired
-    private IArticleLikesService articleLikesService;
+    private IArticleCountService articleCountService;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private IArticleSearchService articleSearchService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+    @Autowired
+    private IInteractionBitmapService interactionBitmapService;
+    @Autowired
+    private IArticleTaxonomyIndexService articleTaxonomyIndexService;
+    @Autowired
+    private IArticleRevisionService articleRevisionService;
     @Autowired
-    private ArticleLikesMapper articleLikesMapper;
+    private IArticlePublishScheduleService articlePublishScheduleService;
+    @Autowired
+    private IArticleSortIndexService articleSortIndexService;
     /**
      * 根据条件查询文章
+     * 带关键词时走内存全文索引，结果按相关度排序；否则优先从内存排序索引取本页，取不到时按排序字段查库
      * @param articlesDTO
      * @return
      */
@@ -67,30 +90,131 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
         Integer page = articlesDTO.getPage();
         Integer pageSize = articlesDTO.getPageSize();
         articlesDTO.setOffset((page - 1) * pageSize);
-        List<ArticleVO> articles = articlesMapper.getArticles(articlesDTO);
+        //分类/标签筛选：先用内存中的倒排集合求出候选文章id
+        RoaringBitmap candidates = resolveTaxonomyFilter(articlesDTO);
+        boolean taxonomyFiltered = articlesDTO.getCategoryId() != null || !articlesDTO.getFilterTagIds().isEmpty();
+        if (candidates != null && candidates.isEmpty()) {
+            return buildPage(new ArrayList<>(), page, pageSize, 0);
+        }
+        //关键词检索：索引可用时直接由索引给出本页id和命中总数（有分类/标签筛选但索引未就绪时回退到SQL）
+        if (StringUtils.hasText(articlesDTO.getKeyword()) && (candidates != null || !taxonomyFiltered)) {
+            InvertedIndex.Hits hits = articleSearchService.search(
+                    articlesDTO.getKeyword(), articlesDTO.getOffset() + pageSize,
+                    candidates == null ? null : candidates::contains);
+            if (hits != null) {
+                return searchPage(hits, articlesDTO);
+            }
+        }
+        //候选集合过大时不再拼IN列表，交给SQL按分类/标签筛选
+        if (candidates != null && candidates.getCardinality() <= MAX_FILTER_IDS) {
+            List<Integer> filterIds = new ArrayList<>(candidates.getCardinality());
+            for (int id : candidates.toArray()) {
+                filterIds.add(id);
+            }
+            articlesDTO.setFilterIds(filterIds);
+        }
+        //解析排序字段和游标，排序列只来自白名单
+        ArticleSortField sortField = ArticleSortField.of(articlesDTO.getSort());
+        boolean asc = "asc".equalsIgnoreCase(articlesDTO.getOrder());
+        articlesDTO.setCursorValue(null).setCursorId(null);
+        if (StringUtils.hasText(articlesDTO.getCursor())) {
+            //游标模式：沿用游标中的排序方式，从上一页最后一行之后继续取
+            ArticleCursorUtil.Cursor cursor = ArticleCursorUtil.decode(articlesDTO.getCursor());
+            sortField = cursor.getField();
+            asc = cursor.isAsc();
+            articlesDTO.setCursorValue(cursor.getValue()).setCursorId(cursor.getId());
+        }
+        articlesDTO.setSortColumn(sortField.getColumn()).setSortOrder(asc ? "ASC" : "DESC");
+        //没有关键词时先从内存排序索引取本页id，索引不能服务（深翻页、不支持的排序等）时再查库排序
+        List<Integer> indexedIds = null;
+        if (!StringUtils.hasText(articlesDTO.getKeyword()) && (candidates != null || !taxonomyFiltered)) {
+            indexedIds = articleSortIndexService.page(sortField, asc,
+                    articlesDTO.getCursorValue(), articlesDTO.getCursorId(), articlesDTO.getOffset(), pageSize,
+                    candidates == null ? null : candidates::contains);
+        }
+        List<ArticleVO> articles = indexedIds != null
+                ? fetchInOrder(indexedIds)
+                : articlesMapper.getArticles(articlesDTO);
         //拼接分类信息和标签信息
-        for (ArticleVO article : articles) {
-            //拿到文章id
-            Integer id = article.getId();
-            //通过文章id 查找 文章-分类表 文章-标签表
-            Integer categorieId = articleCategoriesService.getCategorie(id);
+        hydrateArticles(articles);
 
-            List<Tags> tags = articleTagsService.getTags(id);
-            Categories categorie = null;
-            article.setTags(tags);
-            //判断分类id是否为空
-            if (categorieId != null){
-                categorie = categoriesService.getById(categorieId);
+        // 计算总记录数：只按分类/标签筛选时就是候选集合的大小，没有任何筛选且走了索引时就是索引大小，
+        // 否则按筛选条件统计（结果有缓存）
+        Integer total;
+        if (candidates != null && !StringUtils.hasText(articlesDTO.getKeyword())) {
+            total = candidates.getCardinality();
+        } else if (indexedIds != null && candidates == null) {
+            total = articleSortIndexService.size();
+        } else {
+            total = articleCountService.count(articlesDTO);
+        }
+        PageResultVO<ArticleVO> pageResultVO = buildPage(articles, page, pageSize, total);
+        //本页取满时返回下一页游标，两种翻页模式都会返回
+        if (!articles.isEmpty() && articles.size() >= pageSize) {
+            pageResultVO.setNextCursor(ArticleCursorUtil.encode(sortField, asc, articles.get(articles.size() - 1)));
+        }
+        
+        return pageResultVO;
+    }
 
-                if (categorie ==null){
-                    System.out.println("分类Id："+categorieId+"不存在");
-                }
+    /**
+     * 合并tagId/tagIds并解析匹配方式，返回分类/标签索引求出的候选文章id
+     * @return 没有分类/标签筛选或索引未就绪时返回null
+     */
+    private RoaringBitmap resolveTaxonomyFilter(GetArticlesDTO articlesDTO) {
+        List<Integer> tagIds = new ArrayList<>();
+        if (articlesDTO.getTagId() != null) {
+            tagIds.add(articlesDTO.getTagId());
+        }
+        if (articlesDTO.getTagIds() != null) {
+            articlesDTO.getTagIds().stream()
+                    .filter(tagId -> tagId != null && !tagIds.contains(tagId))
+                    .forEach(tagIds::add);
+        }
+        boolean matchAll = !"any".equalsIgnoreCase(articlesDTO.getTagMode());
+        //以下字段只由服务端填充
+        articlesDTO.setFilterTagIds(tagIds).setTagMatchAll(matchAll).setFilterIds(null);
+        if (articlesDTO.getCategoryId() == null && tagIds.isEmpty()) {
+            return null;
+        }
+        return articleTaxonomyIndexService.match(articlesDTO.getCategoryId(), tagIds, matchAll);
+    }
+
+    /**
+     * 用全文索引的命中结果组装一页数据，按相关度顺序返回
+     */
+    private PageResultVO<ArticleVO> searchPage(InvertedIndex.Hits hits, GetArticlesDTO articlesDTO) {
+        List<Integer> rankedIds = hits.getIds();
+        int from = Math.min(articlesDTO.getOffset(), rankedIds.size());
+        List<Integer> pageIds = rankedIds.subList(from, rankedIds.size());
+        List<ArticleVO> articles = fetchInOrder(pageIds);
+        hydrateArticles(articles);
+        return buildPage(articles, articlesDTO.getPage(), articlesDTO.getPageSize(), hits.getTotal());
+    }
+
+    /**
+     * 按给定id顺序批量取出文章列表字段，已不存在的id会被跳过
+     */
+    private List<ArticleVO> fetchInOrder(List<Integer> ids) {
+        List<ArticleVO> articles = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return articles;
+        }
+        Map<Integer, ArticleVO> byId = articlesMapper.getArticlesByIds(ids).stream()
+                .collect(Collectors.toMap(ArticleVO::getId, Function.identity()));
+        for (Integer id : ids) {
+            ArticleVO article = byId.get(id);
+            if (article != null) {
+                articles.add(article);
             }
-            article.setCategory(categorie);
         }
+        return articles;
+    }
 
-        // 计算总记录数
-        Integer total = articlesMapper.totalCount();
+    /**
+     * 组装分页结果
+     */
+    private PageResultVO<ArticleVO> buildPage(List<ArticleVO> articles, Integer page, Integer pageSize, Integer total) {
         Integer pages = (total + pageSize - 1) / pageSize;
 
         // 创建分页信息对象
@@ -99,31 +223,91 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
         paginationVO.setPage(page);
         paginationVO.setPageSize(pageSize);
         paginationVO.setPages(pages);
-        
+
         // 创建结果对象
         PageResultVO<ArticleVO> pageResultVO = new PageResultVO<>();
         pageResultVO.setRecords(articles);
         pageResultVO.setPagination(paginationVO);
-        
         return pageResultVO;
     }
+
+    /**
+     * 为一页文章批量拼装分类和标签
+     * 先收集本页全部文章id，再用固定条数的集合查询取回关联数据，最后在内存中拼装，
+     * SQL条数不随每页数量增长
+     * @param articles 待拼装的文章列表
+     */
+    @Override
+    public void hydrateArticles(List<ArticleVO> articles) {
+        if (articles == null || articles.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = articles.stream()
+                .map(ArticleVO::getId)
+                .collect(Collectors.toList());
+        Map<Integer, Categories> categories = articleCategoriesService.getCategoriesByArticleIds(ids);
+        Map<Integer, List<Tags>> tags = articleTagsService.getTagsByArticleIds(ids);
+        for (ArticleVO article : articles) {
+            article.setCategory(categories.get(article.getId()));
+            article.setTags(tags.getOrDefault(article.getId(), new ArrayList<>()));
+            // 加上内存中尚未落库的计数
+            articleCounterService.applyPending(article);
+        }
+    }
+    /**
+     * 创建文章，文章主表、文章-标签、文章-分类在同一个事务中保存
+     * @param authorId 作者id
+     * @param articlesDTO 前端传递的文章数据
+     * @return 新文章id
+     */
+    @Override
+    @Transactional
+    public Integer createArticles(Integer authorId, CreatArticlesDTO articlesDTO) {
+        // 1. 保存文章主表信息
+        Articles article = new Articles();
+        article.setTitle(articlesDTO.getTitle())
+                .setContent(articlesDTO.getContent())
+                .setAuthorId(authorId);
+        if (articlesMapper.insert(article) <= 0) {
+            throw new BusinessException("文章保存失败");
+        }
+
+        // 2. 处理标签关联（文章-标签是多对多关系），同时累加标签的文章数
+        articleTagsService.syncTags(article.getId(), articlesDTO.getTagIds());
+
+        // 3. 处理文章与分类的关联
+        ArticleCategories AC = new ArticleCategories();
+        AC.setArticleId(article.getId())
+                .setCategoryId(articlesDTO.getCategoryId());
+        articleCategoriesService.save(AC);
+
+        // 4. 记录第一个版本
+        articleRevisionService.recordCreate(article);
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(this, article.getId(), ArticleChangedEvent.Type.CREATED));
+        return article.getId();
+    }
     //删除文章
     @Override
     @Transactional
     public void deleteArticles(Integer id) {
         //删除文章表的数据
-        articlesMapper.deleteById(id);
+        int rows = articlesMapper.deleteById(id);
         //构造条件
         QueryWrapper<ArticleCategories> qw =new QueryWrapper();
         QueryWrapper<ArticleCategories> articleId = qw.eq("article_id", id);
         //删除文章-分类表中的文章数据
         articleCategoriesMapper.delete(articleId);
 
-        //构造条件
-        QueryWrapper<ArticleTags> qwAT =new QueryWrapper<>();
-        QueryWrapper<ArticleTags> articleId1 = qwAT.eq("article_id", id);
-        //删除文章-标签表中的文章数据
-        articleTagsMapper.delete(articleId1);
+        //删除文章-标签表中的文章数据，并扣减这些标签的文章数
+        articleTagsService.syncTags(id, null);
+        //删除修订历史和发布计划
+        articleRevisionService.deleteRevisions(id);
+        articlePublishScheduleService.cancel(id);
+
+        if (rows > 0) {
+            eventPublisher.publishEvent(new ArticleChangedEvent(this, id, ArticleChangedEvent.Type.DELETED));
+        }
 
     }
     //更新文章的发布状态
@@ -138,50 +322,43 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
             uw.set("status",0);
         }
         articlesMapper.update(null, uw);
+        //手动发布或取消发布后，原来的定时发布计划不再生效
+        articlePublishScheduleService.cancel(id);
+        eventPublisher.publishEvent(new ArticleChangedEvent(this, id, ArticleChangedEvent.Type.PUBLISH_CHANGED));
         Articles articles = articlesMapper.selectById(id);
         return articles.getStatus();
     }
 
     /**
-     *更新文章点赞状态
-     * @param id
-     * @param liked true表示点赞，false表示取消点赞
-     */
-    @Override
-    @Transactional
-    public Integer LikeCount(Integer id, boolean liked) {
-        UpdateWrapper<Articles> UW =new UpdateWrapper<>();
-        UW.eq("id",id);
-        if (liked == true){
-            UW.setSql("like_count = like_count + 1");
-        }else {
-            UW.setSql("like_count = like_count - 1");
-        }
-        articlesMapper.update(null,UW);
-        Articles articles = articlesMapper.selectById(id);
-        return articles.getLikeCount();
-    }
-
-    /**
-     * 更新文章
+     * 更新文章，文章主表和分类、标签关联在同一个事务中更新
+     * 关联只按差异增删，标签的文章数随之调整
      * @param id 文章id
      * @param articlesDTO 前端传递的修改后的文章对象
      * @return
      */
     @Override
+    @Transactional
     public Articles updateArticles(Integer id, CreatArticlesDTO articlesDTO) {
         // 1. 参数校验：确保ID和DTO不为空
         if (id == null || articlesDTO == null) {
             throw new IllegalArgumentException("文章ID和更新数据不能为空");
         }
 
-        // 2. 创建更新条件：根据ID定位要更新的文章
+        // 2. 加锁读取修改前的文章，作为修订历史的差异基准
+        Articles before = articlesMapper.selectForUpdate(id);
+        if (before == null) {
+            throw new RuntimeException("更新失败，未找到ID为" + id + "的文章");
+        }
+
+        // 创建更新条件：根据ID定位要更新的文章
         UpdateWrapper<Articles> updateWrapper = new UpdateWrapper<>();
         updateWrapper.eq("id", id); // 条件：id = 传入的id
 
         // 3. 将DTO转换为实体类（如果需要更新的字段在DTO中，需映射到实体）
         Articles articles = new Articles();
         BeanUtils.copyProperties(articlesDTO, articles); // 复制DTO中的字段到实体
+        // 详情的ETag取自 update_time，修改内容时显式更新
+        articles.setUpdateTime(LocalDateTime.now());
 
         // 4. 执行更新操作（根据条件更新，只更新非空字段）
         // 注意：如果DTO中有null字段，不会更新到数据库（保留原数据）
@@ -192,8 +369,18 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
             throw new RuntimeException("更新失败，未找到ID为" + id + "的文章或数据未变化");
         }
 
-        // 6. 返回更新后的文章（重新查询一次数据库获取最新数据）
-        return articlesMapper.selectById(id);
+        // 6. 同步分类、标签关联；未传标签时保留原标签
+        articleCategoriesService.syncCategory(id, articlesDTO.getCategoryId());
+        if (articlesDTO.getTagIds() != null) {
+            articleTagsService.syncTags(id, articlesDTO.getTagIds());
+        }
+
+        eventPublisher.publishEvent(new ArticleChangedEvent(this, id, ArticleChangedEvent.Type.UPDATED));
+
+        // 7. 记录新版本，返回更新后的文章（重新查询一次数据库获取最新数据）
+        Articles after = articlesMapper.selectById(id);
+        articleRevisionService.recordEdit(before, after);
+        return after;
     }
 
     /**
@@ -203,72 +390,7 @@ public class ArticlesServiceImpl extends ServiceImpl<ArticlesMapper, Articles> i
      */
     @Override
     public boolean getArticlesLike(Integer id, Integer userId) {
-        //根据文章id和用户id查找是否存在点赞数据
-        QueryWrapper<ArticleLikes> queryWrapper =new QueryWrapper<>();
-        queryWrapper.eq("user_id",userId)
-                    .eq("article_id",id);
-        ArticleLikes one = articleLikesService.getOne(queryWrapper);
-        if (one !=null){
-            return true;
-        }else {
-            return false;
-        }
-    }
-
-    /**
-     * 文章点赞
-     * @param userId
-     * @param id
-     */
-    @Override
-    public void saveArticlesLikes(Integer userId, Integer id,boolean liked) {
-        ArticleLikes Cl = new ArticleLikes();
-        Cl.setUserId(userId);
-        Cl.setArticleId(id);
-        Cl.setCreatedAt(LocalDateTime.now());
-        if (liked){
-            articleLikesMapper.insert(Cl);
-        }else {
-            QueryWrapper<ArticleLikes> qw =new QueryWrapper<>();
-            qw.eq("user_id",userId);
-            qw.eq("article_id",id);
-            articleLikesMapper.delete(qw);
-        }
-
-    }
-
-    /**
-     * 分享文章
-     * @param articleId
-     * @param platform
-     */
-    @Override
-    public ArticleShareVO articleShare(Integer articleId, String platform) {
-        // 1. 校验文章是否存在
-        Articles articles = articlesMapper.selectById(articleId);
-        if (articles == null) {
-            throw new BusinessException("文章不存在");
-        }
-
-        // 2. 生成/复用分享码（已存在则直接用，避免重复生成）
-        String shareCode = articles.getShareCode();
-        if (shareCode == null || shareCode.isEmpty()) {
-            shareCode = ShareCodeUtil.generateShareCode();
-            articles.setShareCode(shareCode); // 保存分享码到文章
-        }
-
-        // 3. 累加分享次数（不管哪个平台分享，都计入总次数）
-        articles.setShareCount(articles.getShareCount() + 1);
-        this.updateById(articles); // 更新文章信息
-
-        // 4. 拼接分享链接（替换为你的真实域名）
-        String baseUrl = "http://localhost:3000/article";; // 前端分享页面域名
-        String shareUrl = baseUrl + "/" + shareCode; // 最终分享链接
-
-        // 5. 封装响应结果
-        ArticleShareVO vo = new ArticleShareVO();
-        vo.setShareUrl(shareUrl);
-        vo.setShareCount(articles.getShareCount()); // 返回更新后的总分享次数
-        return vo;
+        //查该文章的点赞用户位图，不再逐次查库
+        return interactionBitmapService.contains(InteractionType.ARTICLE_LIKE, id, userId);
     }
-}
\ No newline at end of file
+}
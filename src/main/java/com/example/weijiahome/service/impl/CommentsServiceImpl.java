@@ -1,28 +1,44 @@
 package com.example.weijiahome.service.impl;
 
-import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.core.conditions.update.UpdateWrapper;
-import com.example.weijiahome.entity.po.CommentLikes;
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.enums.InteractionType;
 import com.example.weijiahome.entity.po.Comments;
 import com.example.weijiahome.entity.po.Users;
+import com.example.weijiahome.entity.vo.CommentRepliesVO;
+import com.example.weijiahome.entity.vo.CommentThreadPageVO;
+import com.example.weijiahome.entity.vo.CommentThreadVO;
 import com.example.weijiahome.entity.vo.CommentsLikeVO;
 import com.example.weijiahome.entity.vo.CommentsListVO;
-import com.example.weijiahome.entity.vo.LikeVO;
 import com.example.weijiahome.entity.vo.SaveCommentVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticlesMapper;
 import com.example.weijiahome.mapper.CommentsMapper;
-import com.example.weijiahome.service.ICommentLikesService;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IInteractionBitmapService;
 import com.example.weijiahome.service.ICommentsService;
+import com.example.weijiahome.service.ILikeService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.weijiahome.service.IUsersService;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * <p>
@@ -34,91 +50,239 @@ import java.util.List;
  */
 @Service
 public class CommentsServiceImpl extends ServiceImpl<CommentsMapper, Comments> implements ICommentsService {
+    /**
+     * 每页讨论串数、每个讨论串附带的回复数、每次继续加载的回复数的上限
+     */
+    private static final int MAX_THREADS = 50;
+    private static final int MAX_EMBEDDED_REPLIES = 20;
+    private static final int MAX_REPLIES = 100;
+    /**
+     * 物化路径最多的层数，更深的回复挂到上一层，路径长度不超过列宽
+     */
+    private static final int MAX_DEPTH = 16;
+
    @Autowired
    private CommentsMapper commentsMapper;
    @Autowired
    private IUsersService usersService;
    @Autowired
-   private ICommentLikesService commentLikesService;
+   private IInteractionBitmapService interactionBitmapService;
+   @Autowired
+   private IArticleCounterService articleCounterService;
+   @Autowired
+   private ILikeService likeService;
+   @Autowired
+   private ArticlesMapper articlesMapper;
     /**
      * 查看评论列表
+     * 评论作者和当前用户的点赞状态按整页批量取出，SQL条数不随每页数量增长
      * @param articleId
      * @param page
      * @param pageSize
      */
     @Override
     public CommentsListVO getComments(Integer userId,Integer articleId, Integer page, Integer pageSize) {
-        //分为三步查询
-        //先查寻评论表的数据可能会根据文章id查找
         //查找前拼接一下偏移量 公式为 （page-1） *pageSize
         Integer pageNum = (page-1)*pageSize;
         List<Comments> comments = commentsMapper.getComments(articleId, pageNum, pageSize);
-       //创建集合接收对象
-        List<CommentsLikeVO> commentsListVOs =new ArrayList<>();
-
-        //根据评论表数据获得用户id
-        for (Comments comment : comments) {
-            //创建评论对象
-            CommentsLikeVO commentsLikeVO =new CommentsLikeVO();
-            Integer authorId = comment.getUserId();
-            //查询出评论着姓名和头像
-            Users user = usersService.getById(authorId);
-            String username = user.getUsername();
-            String avatar = user.getAvatar();
-
-
-            //在通过用户id查询评论-点赞表，检查出是否存在点赞，若存在则返回true 不存在返回false
-            QueryWrapper<CommentLikes> QW = new QueryWrapper<>();
-            QW.eq("user_id",userId).eq("comment_id",comment.getId());
-            CommentLikes one = commentLikesService.getOne(QW);
-            //拼装对象
-            BeanUtils.copyProperties(comment,commentsLikeVO);
-            commentsLikeVO.setLikes(comment.getLikeCount());
-            commentsLikeVO.setCreatedAt(LocalDateTime.now());
-            commentsLikeVO.setUserName(username);
-            commentsLikeVO.setUserAvatar(avatar);
-            if (one == null){
-                //如果该用户没赞过搜索应为空 则设置为false
-                commentsLikeVO.setIsLiked(false);
-            }else {
-                commentsLikeVO.setIsLiked(true);
-            }
-            //将拼装好的对象加入集合
-            commentsListVOs.add(commentsLikeVO);
-        }
-        //之后将集合与页面page、pageSize、total 拼装成对象返回
 
         CommentsListVO CLVO = new CommentsListVO();
-        CLVO.setCommentsLikeVOs(commentsListVOs);
-        //计数查找评论表 得出total
-        Integer total = commentsMapper.count();
+        CLVO.setCommentsLikeVOs(toVOs(comments, userId));
+        //文章的评论数取自评论计数（已落库的计数列 + 内存增量），不再统计评论表
+        Integer total = articleId == null ? commentsMapper.count() : commentCount(articleId);
         CLVO.setTotal(total);
         CLVO.setPage(page);
         CLVO.setPageSize(pageSize);
 
         return CLVO;
+    }
 
+    /**
+     * 按讨论串分页：顶级评论一次索引范围扫描，所有讨论串的前几条回复合并成一条语句（每串一次范围扫描），
+     * 再批量取作者和点赞状态，每页固定四条SQL
+     */
+    @Override
+    public CommentThreadPageVO getThreads(Integer userId, Integer articleId, String cursor, Integer limit, Integer replyLimit) {
+        int threadLimit = Math.min(Math.max(limit, 1), MAX_THREADS);
+        int embedded = Math.min(Math.max(replyLimit, 0), MAX_EMBEDDED_REPLIES);
+        //多取一条用来判断是否还有下一页
+        List<Comments> roots = commentsMapper.selectRoots(articleId, parseThreadCursor(cursor), threadLimit + 1);
+        boolean hasMore = roots.size() > threadLimit;
+        if (hasMore) {
+            roots = roots.subList(0, threadLimit);
+        }
+        Map<Integer, List<Comments>> repliesByRoot = new HashMap<>();
+        List<Comments> all = new ArrayList<>(roots);
+        if (!roots.isEmpty() && embedded > 0) {
+            List<Integer> rootIds = roots.stream().map(Comments::getId).collect(Collectors.toList());
+            for (Comments reply : commentsMapper.selectFirstReplies(rootIds, embedded)) {
+                repliesByRoot.computeIfAbsent(reply.getRootId(), id -> new ArrayList<>()).add(reply);
+                all.add(reply);
+            }
+        }
+        Map<Integer, CommentsLikeVO> vos = toVOs(all, userId).stream()
+                .collect(Collectors.toMap(CommentsLikeVO::getId, Function.identity()));
 
+        List<CommentThreadVO> threads = new ArrayList<>();
+        for (Comments root : roots) {
+            List<Comments> replies = repliesByRoot.getOrDefault(root.getId(), new ArrayList<>());
+            int replyCount = root.getReplyCount() == null ? 0 : root.getReplyCount();
+            CommentThreadVO thread = new CommentThreadVO();
+            thread.setComment(vos.get(root.getId()));
+            thread.setReplies(replies.stream().map(reply -> vos.get(reply.getId())).collect(Collectors.toList()));
+            thread.setReplyCount(replyCount);
+            if (replyCount > replies.size()) {
+                thread.setRepliesCursor(replies.isEmpty() ? "" : replies.get(replies.size() - 1).getPath());
+            }
+            threads.add(thread);
+        }
+        CommentThreadPageVO pageVO = new CommentThreadPageVO();
+        pageVO.setThreads(threads);
+        if (hasMore) {
+            pageVO.setNextCursor(String.valueOf(roots.get(roots.size() - 1).getId()));
+        }
+        return pageVO;
+    }
 
+    @Override
+    public CommentRepliesVO getReplies(Integer userId, Integer rootId, String cursor, Integer limit) {
+        int replyLimit = Math.min(Math.max(limit, 1), MAX_REPLIES);
+        List<Comments> replies = commentsMapper.selectReplies(rootId, parseReplyCursor(cursor), replyLimit + 1);
+        boolean hasMore = replies.size() > replyLimit;
+        if (hasMore) {
+            replies = replies.subList(0, replyLimit);
+        }
+        CommentRepliesVO vo = new CommentRepliesVO();
+        vo.setReplies(toVOs(replies, userId));
+        if (hasMore) {
+            vo.setNextCursor(replies.get(replies.size() - 1).getPath());
+        }
+        return vo;
+    }
 
+    /**
+     * 组装评论VO：作者姓名和头像一条SQL查出，当前用户的点赞状态从点赞位图中批量取出，点赞数加上内存中的增量
+     */
+    private List<CommentsLikeVO> toVOs(List<Comments> comments, Integer userId) {
+        List<Integer> commentIds = new ArrayList<>();
+        Set<Integer> authorIds = new HashSet<>();
+        for (Comments comment : comments) {
+            commentIds.add(comment.getId());
+            authorIds.add(comment.getUserId());
+        }
+        Map<Integer, Users> authors = usersService.getUserSummaries(authorIds);
+        Map<Integer, Boolean> likedMap = interactionBitmapService.containsAll(InteractionType.COMMENT_LIKE, commentIds, userId);
 
+        List<CommentsLikeVO> commentsListVOs =new ArrayList<>();
+        for (Comments comment : comments) {
+            CommentsLikeVO commentsLikeVO =new CommentsLikeVO();
+            BeanUtils.copyProperties(comment,commentsLikeVO);
+            //点赞数 = 已落库的值 + 尚未写回的增量，与当前用户的点赞状态（实时位图）一致
+            long likes = (comment.getLikeCount() == null ? 0 : comment.getLikeCount())
+                    + likeService.pendingCommentLikes(comment.getId());
+            commentsLikeVO.setLikes((int) Math.max(0, likes));
+            commentsLikeVO.setCreatedAt(comment.getCreateTime());
+            Users user = authors.get(comment.getUserId());
+            if (user != null) {
+                commentsLikeVO.setUserName(user.getUsername());
+                commentsLikeVO.setUserAvatar(user.getAvatar());
+            }
+            commentsLikeVO.setIsLiked(likedMap.getOrDefault(comment.getId(), false));
+            commentsListVOs.add(commentsLikeVO);
+        }
+        return commentsListVOs;
+    }
+
+    /**
+     * 文章当前的评论数：按主键只读 comment_count 一列，不加载整篇文章详情
+     */
+    private Integer commentCount(Integer articleId) {
+        Integer stored = articlesMapper.selectCommentCount(articleId);
+        if (stored == null) {
+            return 0;
+        }
+        long base = stored;
+        return (int) Math.max(0, base + articleCounterService.pending(articleId, ArticleCounterType.COMMENT));
+    }
+
+    /**
+     * 事务提交后再累加文章评论数，回滚时计数不变
+     */
+    private void addCommentCountAfterCommit(Integer articleId, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            articleCounterService.increment(articleId, ArticleCounterType.COMMENT, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                articleCounterService.increment(articleId, ArticleCounterType.COMMENT, delta);
+            }
+        });
+    }
+
+    private static Integer parseThreadCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(cursor);
+        } catch (NumberFormatException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    private static String parseReplyCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        if (!cursor.matches("[0-9.]+")) {
+            throw new BusinessException("分页游标无效");
+        }
+        return cursor;
     }
 
     /**
      * 创建评论
+     * 回复与父评论同属一篇文章、一个讨论串，插入后写入物化路径并累加顶级评论的回复数
      * @param comment 类中目前数据有 文章id 评论内容 用户id 父评论id
      */
     @Override
+    @Transactional
     public SaveCommentVO insert(Comments comment) {
-        // 设置创建时间和默认点赞数
+        Comments parent = null;
+        if (comment.getParentId() != null) {
+            parent = commentsMapper.selectById(comment.getParentId());
+            if (parent == null || parent.getPath() == null) {
+                throw new BusinessException("回复的评论不存在");
+            }
+            comment.setArticleId(parent.getArticleId());
+        }
+        // 设置创建时间和默认点赞数，讨论串字段只由服务端填写
         comment.setCreateTime(LocalDateTime.now());
         if (comment.getLikeCount() == null) {
             comment.setLikeCount(0);
         }
         comment.setIsdelete(0); // 设置未删除标记
+        comment.setRootId(null).setPath(null).setReplyCount(0);
         
         // 执行保存操作到数据库
         commentsMapper.insert(comment);
+        String segment = String.format("%010d", comment.getId());
+        if (parent == null) {
+            comment.setRootId(comment.getId()).setPath(segment);
+        } else {
+            String parentPath = parent.getPath();
+            //层数到上限时作为父评论的兄弟挂在同一层，parentId 仍指向被回复的评论
+            if (parentPath.split("\\.").length >= MAX_DEPTH) {
+                parentPath = parentPath.substring(0, parentPath.lastIndexOf('.'));
+            }
+            comment.setRootId(parent.getRootId()).setPath(parentPath + "." + segment);
+            commentsMapper.addReplyCount(parent.getRootId(), 1);
+        }
+        commentsMapper.setThread(comment.getId(), comment.getRootId(), comment.getPath());
+        //评论数按批写回文章表，累加时发布的互动事件驱动热度排行和排序索引
+        addCommentCountAfterCommit(comment.getArticleId(), 1);
         
         SaveCommentVO SC = new SaveCommentVO();
         Integer articleId = comment.getArticleId();
@@ -147,65 +311,31 @@ public class CommentsServiceImpl extends ServiceImpl<CommentsMapper, Comments> i
         return SC;
     }
     /**
-     * 删除评论
+     * 删除评论（软删除）
+     * 评论下的回复一并标记删除，文章评论数和顶级评论的回复数按实际标记的条数扣减
      */
     @Override
+    @Transactional
     public void cleanComments(Integer id) {
-        UpdateWrapper UW =new UpdateWrapper<>();
-        UW.eq("id",id);
-        UW.setSql("isdelete = 1");
-        commentsMapper.delete(UW);
-    }
-
-    /**
-     * 点赞评论
-     * @param id
-     * @return
-     */
-    @Override
-    public LikeVO likeComment(Integer id,Integer userId) {
-        //判断登录用户是否已经对该评论点过赞
-        QueryWrapper<CommentLikes> qw =new QueryWrapper<>();
-        qw.eq("user_id",userId);
-        qw.eq("comment_id",id);
-        CommentLikes one = commentLikesService.getOne(qw);
-        if (one !=null){
-            //已经点赞过了，删除评论-点赞表中的记录，并对该评论点赞数减1
-            //先删除评论-点赞表中的记录
-
-            commentLikesService.remove(qw);
-
-            //在将该评论点赞数减1
-            UpdateWrapper<Comments> commentsQueryWrapper = new UpdateWrapper<>();
-            commentsQueryWrapper.eq("id",id)
-                    .ge("like_count", 1);
-            commentsQueryWrapper.setSql("like_count = like_count - 1");
-            commentsMapper.update(null,commentsQueryWrapper);
-            Comments comments1 = commentsMapper.selectById(id);
-            LikeVO LV =new LikeVO();
-            LV.setLikes(comments1.getLikeCount());
-            LV.setLiked(false);
-            return LV;
-        }else {
-        //根据评论id对点赞数加一
-        UpdateWrapper<Comments> UW =new UpdateWrapper<>();
-        UW.eq("id",id);
-        UW.setSql("like_count = like_count +1");
-        commentsMapper.update(null,UW);
         Comments comment = commentsMapper.selectById(id);
-        //根据用户id创建点赞-评论表数据
-        CommentLikes CL =new CommentLikes();
-        CL.setUserId(userId);
-        CL.setCommentId(id);
-        CL.setCreatedAt(LocalDateTime.now());
-        commentLikesService.save(CL);
-        //组装对象返回
-        LikeVO LV =new LikeVO();
-        LV.setLikes(comment.getLikeCount());
-        LV.setLiked(true);
-        return LV;
+        if (comment == null || Integer.valueOf(1).equals(comment.getIsdelete())) {
+            return;
+        }
+        int deleted;
+        if (comment.getPath() == null) {
+            //未回填讨论串的历史评论只删除本条
+            UpdateWrapper<Comments> UW =new UpdateWrapper<>();
+            UW.eq("id",id).apply("IFNULL(isdelete, 0) = 0");
+            UW.setSql("isdelete = 1");
+            deleted = commentsMapper.update(null, UW);
+        } else {
+            deleted = commentsMapper.softDeleteSubtree(comment.getRootId(), comment.getPath());
+            if (deleted > 0 && comment.getParentId() != null) {
+                commentsMapper.addReplyCount(comment.getRootId(), -deleted);
+            }
+        }
+        if (deleted > 0) {
+            addCommentCountAfterCommit(comment.getArticleId(), -deleted);
         }
     }
-
-
 }
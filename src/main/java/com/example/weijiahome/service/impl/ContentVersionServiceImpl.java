@@ -0,0 +1,219 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.po.Categories;
+import com.example.weijiahome.entity.po.Tags;
+import com.example.weijiahome.entity.po.Users;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.event.TaxonomyChangedEvent;
+import com.example.weijiahome.mapper.ContentVersionsMapper;
+import com.example.weijiahome.service.IContentVersionService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内容版本服务实现类
+ * 文章详情：文章的 update_time（计数落库不改它）+ 作者、分类、标签的摘要，直接从缓存的详情计算
+ * 列表、分类、标签：content_versions 表中的版本号，本地缓存很短时间
+ * 修改只在内存中记一笔，定时把这段时间内有变化的范围合并成一条语句各加一，写操作不再逐次更新热点行；
+ * 本节点有尚未写回的修改时返回一次性的ETag，不会因为版本号还没更新而返回304
+ */
+@Service
+public class ContentVersionServiceImpl implements IContentVersionService {
+
+    private static final String ARTICLES = "articles";
+    private static final String CATEGORIES = "categories";
+    private static final String TAGS = "tags";
+
+    @Autowired
+    private ContentVersionsMapper contentVersionsMapper;
+
+    /**
+     * 版本号在本地缓存的时间（毫秒），其他节点的修改最多晚这么久可见
+     */
+    @Value("${blog.cache.content-version.ttl-ms:1000}")
+    private long ttlMs;
+
+    private LoadingCache<String, Long> versions;
+    /**
+     * 范围 -> 本节点累计的修改次数
+     */
+    private final Map<String, AtomicLong> changes = new ConcurrentHashMap<>();
+    /**
+     * 范围 -> 已写回数据库的修改次数，与 changes 不等说明有尚未写回的修改
+     */
+    private final Map<String, Long> flushed = new ConcurrentHashMap<>();
+    /**
+     * 一次性ETag的序号
+     */
+    private final AtomicLong uncommittedSeq = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        versions = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .build(scope -> {
+                    Long version = contentVersionsMapper.getVersion(scope);
+                    return version == null ? 0L : version;
+                });
+    }
+
+    @Override
+    public String articleETag(ArticleVO article) {
+        LocalDateTime stamp = article.getUpdatedAt() != null ? article.getUpdatedAt() : article.getCreatedAt();
+        return etag("a" + article.getId(), epochMillis(stamp), Integer.toUnsignedLong(relatedHash(article)));
+    }
+
+    /**
+     * 列表项带分类名和标签名，分类、标签改名后列表也要重新获取
+     */
+    @Override
+    public String articleListETag() {
+        return etag("l", ARTICLES, CATEGORIES, TAGS);
+    }
+
+    @Override
+    public String categoriesETag() {
+        return etag("c", CATEGORIES);
+    }
+
+    @Override
+    public String tagsETag() {
+        return etag("t", TAGS);
+    }
+
+    /**
+     * 分类、标签有增删改
+     */
+    @EventListener
+    public void onTaxonomyChanged(TaxonomyChangedEvent event) {
+        markChanged(event.getType() == TaxonomyChangedEvent.Type.CATEGORY ? CATEGORIES : TAGS);
+    }
+
+    /**
+     * 文章变化（事务提交后），标签的文章数也可能随之变化
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        markChanged(ARTICLES, TAGS);
+    }
+
+    /**
+     * 导入的一批文章提交后只更新一次版本号
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        markChanged(ARTICLES, TAGS);
+    }
+
+    /**
+     * 把有变化的范围合并成一条语句各加一；写回期间的新修改留到下一次
+     */
+    @Scheduled(fixedDelayString = "${blog.cache.content-version.flush-ms:200}")
+    public synchronized void flush() {
+        Map<String, Long> snapshot = new HashMap<>();
+        changes.forEach((scope, count) -> {
+            long current = count.get();
+            if (current != flushed.getOrDefault(scope, 0L)) {
+                snapshot.put(scope, current);
+            }
+        });
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        contentVersionsMapper.bumpAll(snapshot.keySet());
+        snapshot.forEach((scope, current) -> {
+            versions.invalidate(scope);
+            flushed.put(scope, current);
+        });
+    }
+
+    /**
+     * 应用关闭前把剩余修改写回
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void markChanged(String... scopes) {
+        for (String scope : scopes) {
+            changes.computeIfAbsent(scope, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    private boolean hasUnflushed(String scope) {
+        AtomicLong count = changes.get(scope);
+        return count != null && count.get() != flushed.getOrDefault(scope, 0L);
+    }
+
+    /**
+     * 详情中随文章一起返回、但不在文章表里的内容：作者名和头像、分类、标签
+     */
+    private static int relatedHash(ArticleVO article) {
+        Users author = article.getAuthor();
+        Categories category = article.getCategory();
+        List<Object> tags = new ArrayList<>();
+        if (article.getTags() != null) {
+            for (Tags tag : article.getTags()) {
+                tags.add(tag.getId());
+                tags.add(tag.getName());
+            }
+        }
+        return Objects.hash(
+                author == null ? null : author.getUsername(),
+                author == null ? null : author.getAvatar(),
+                category == null ? null : category.getId(),
+                category == null ? null : category.getName(),
+                tags);
+    }
+
+    /**
+     * 固定按UTC换算，不同时区的节点算出的ETag相同
+     */
+    private static long epochMillis(LocalDateTime time) {
+        return time == null ? 0 : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * 由若干范围的版本号组成ETag；其中任一范围有尚未写回的修改时返回不会与任何请求匹配的一次性ETag
+     */
+    private String etag(String prefix, String... scopes) {
+        long[] parts = new long[scopes.length];
+        for (int i = 0; i < scopes.length; i++) {
+            if (hasUnflushed(scopes[i])) {
+                return etag(prefix + "u", uncommittedSeq.incrementAndGet(), System.currentTimeMillis());
+            }
+            parts[i] = versions.get(scopes[i]);
+        }
+        return etag(prefix, parts);
+    }
+
+    private String etag(String scope, long... parts) {
+        StringBuilder sb = new StringBuilder("\"").append(scope);
+        for (long part : parts) {
+            sb.append('-').append(Long.toString(part, 36));
+        }
+        return sb.append('"').toString();
+    }
+}
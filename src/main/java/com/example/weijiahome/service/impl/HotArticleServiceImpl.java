@@ -0,0 +1,367 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticleCountersFlushedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.event.TaxonomyChangedEvent;
+import com.example.weijiahome.event.UserProfileChangedEvent;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import com.example.weijiahome.service.IHotArticleService;
+import com.example.weijiahome.utils.BackgroundBuilder;
+import com.example.weijiahome.utils.DecayingTopK;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 热门文章服务实现类
+ * 启动时按库中累计计数（视为发生在发布时刻）初始化排行，之后在计数批量落库后按增量更新（在落库线程上，不占用请求线程）
+ * 初始化期间的落库事件先缓存，初始化完成后按写库序号判断每篇文章读到的计数是否已包含该增量，再决定补加、跳过或重读
+ * 前K名的列表字段常驻内存，取排行不查库
+ */
+@Service
+public class HotArticleServiceImpl implements IHotArticleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotArticleServiceImpl.class);
+    /**
+     * 初始化时每批读取的文章数
+     */
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private IArticleDetailCacheService articleDetailCacheService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+
+    /**
+     * 热度半衰期（小时）
+     */
+    @Value("${blog.hot.half-life-hours:24}")
+    private long halfLifeHours;
+    /**
+     * 排行保留的文章数K
+     */
+    @Value("${blog.hot.capacity:100}")
+    private int capacity;
+    @Value("${blog.hot.weight.view:1}")
+    private double viewWeight;
+    @Value("${blog.hot.weight.like:5}")
+    private double likeWeight;
+    @Value("${blog.hot.weight.comment:8}")
+    private double commentWeight;
+    @Value("${blog.hot.weight.share:10}")
+    private double shareWeight;
+
+    private final Map<ArticleCounterType, Double> weights = new EnumMap<>(ArticleCounterType.class);
+    private DecayingTopK ranking;
+    /**
+     * 前K名文章的列表字段（不含正文），不过期；排行变化、文章修改后在后台更新
+     */
+    private final Map<Integer, ArticleVO> cards = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+    private final BackgroundBuilder builder = new BackgroundBuilder("hot-article-seeder", this::seed);
+    /**
+     * 初始化期间收到的计数落库事件，初始化完成后统一处理；与 ready 的判断、置位在 seedLock 下进行
+     */
+    private final List<ArticleCountersFlushedEvent> flushedDuringSeed = new ArrayList<>();
+    private final Object seedLock = new Object();
+
+    @PostConstruct
+    public void init() {
+        weights.put(ArticleCounterType.VIEW, viewWeight);
+        weights.put(ArticleCounterType.LIKE, likeWeight);
+        weights.put(ArticleCounterType.COMMENT, commentWeight);
+        weights.put(ArticleCounterType.SHARE, shareWeight);
+        ranking = new DecayingTopK(halfLifeHours * 3600_000L, capacity, System.currentTimeMillis());
+    }
+
+    /**
+     * 应用启动完成后在后台线程初始化排行
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        builder.start();
+    }
+
+    /**
+     * 初始化失败（如启动时数据库暂时不可用）时定期重试，完成之后不再执行
+     */
+    @Scheduled(initialDelayString = "${blog.index.rebuild-retry-ms:60000}",
+            fixedDelayString = "${blog.index.rebuild-retry-ms:60000}")
+    public void retrySeed() {
+        if (!ready) {
+            builder.start();
+        }
+    }
+
+    void seed() {
+        long start = System.currentTimeMillis();
+        //文章id -> 读取该文章所在批次前后的写库序号
+        Map<Integer, long[]> loadedAt = new HashMap<>();
+        Integer afterId = 0;
+        List<Articles> batch;
+        do {
+            long loadStart = articleCounterService.flushSequence();
+            batch = articlesMapper.selectForRanking(afterId, SEED_BATCH_SIZE);
+            long[] mark = {loadStart, articleCounterService.flushSequence()};
+            for (Articles article : batch) {
+                //重试时覆盖上一次失败前写入的分数
+                ranking.remove(article.getId());
+                seedArticle(article);
+                loadedAt.put(article.getId(), mark);
+                afterId = article.getId();
+            }
+        } while (batch.size() == SEED_BATCH_SIZE);
+        replayFlushedDuringSeed(loadedAt);
+        refreshCards();
+        logger.info("热门文章排行初始化完成，共{}篇，耗时{}ms", ranking.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 处理初始化期间缓存的落库事件，直到没有新的事件后置为已完成
+     * 读库早于落库开始的补加增量，晚于落库提交的已包含增量直接跳过，两者交错的无法判断，重新读取该文章
+     */
+    private void replayFlushedDuringSeed(Map<Integer, long[]> loadedAt) {
+        while (true) {
+            List<ArticleCountersFlushedEvent> events;
+            synchronized (seedLock) {
+                if (flushedDuringSeed.isEmpty()) {
+                    ready = true;
+                    return;
+                }
+                events = new ArrayList<>(flushedDuringSeed);
+                flushedDuringSeed.clear();
+            }
+            Set<Integer> reload = new HashSet<>();
+            for (ArticleCountersFlushedEvent event : events) {
+                double weight = weights.getOrDefault(event.getType(), 0.0);
+                Map<Integer, Double> weighted = new HashMap<>();
+                event.getDeltas().forEach((id, delta) -> {
+                    long[] mark = loadedAt.get(id);
+                    if (mark == null || mark[1] < event.getStartSequence()) {
+                        weighted.put(id, weight * delta);
+                    } else if (mark[0] < event.getEndSequence()) {
+                        reload.add(id);
+                    }
+                });
+                if (weight != 0) {
+                    ranking.addAll(weighted, System.currentTimeMillis());
+                }
+            }
+            if (!reload.isEmpty()) {
+                long loadStart = articleCounterService.flushSequence();
+                QueryWrapper<Articles> qw = new QueryWrapper<>();
+                qw.select("id", "status", "view_count", "like_count", "comment_count", "share_count",
+                        "create_time", "publish_time").in("id", reload).eq("status", 1);
+                List<Articles> articles = articlesMapper.selectList(qw);
+                long[] mark = {loadStart, articleCounterService.flushSequence()};
+                reload.forEach(ranking::remove);
+                for (Articles article : articles) {
+                    seedArticle(article);
+                    loadedAt.put(article.getId(), mark);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<ArticleVO> getHotArticles(int limit) {
+        List<ArticleVO> articles = new ArrayList<>();
+        for (Integer id : ranking.top(Math.min(limit, capacity))) {
+            ArticleVO card = cards.get(id);
+            //刚进入前K名、还没载入的跳过，下次落库后补上
+            if (card != null) {
+                articles.add(articleCounterService.withPending(card));
+            }
+        }
+        return articles;
+    }
+
+    /**
+     * 计数批量落库后按权重累加热度，同时合并进已载入的列表字段
+     */
+    @EventListener
+    public void onCountersFlushed(ArticleCountersFlushedEvent event) {
+        if (!ready) {
+            synchronized (seedLock) {
+                if (!ready) {
+                    flushedDuringSeed.add(event);
+                    return;
+                }
+            }
+        }
+        double weight = weights.getOrDefault(event.getType(), 0.0);
+        if (weight != 0) {
+            Map<Integer, Double> weighted = new HashMap<>();
+            event.getDeltas().forEach((id, delta) -> weighted.put(id, weight * delta));
+            ranking.addAll(weighted, System.currentTimeMillis());
+        }
+        event.getDeltas().forEach((id, delta) -> cards.computeIfPresent(id, (key, card) -> {
+            ArticleVO copy = new ArticleVO();
+            BeanUtils.copyProperties(card, copy);
+            event.getType().addTo(copy, delta);
+            return copy;
+        }));
+        refreshCards();
+    }
+
+    /**
+     * 删除、取消发布的文章移出排行，新发布的文章加入；修改过的文章重新载入列表字段
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Integer id = event.getArticleId();
+        switch (event.getType()) {
+            case DELETED:
+                ranking.remove(id);
+                cards.remove(id);
+                break;
+            case CREATED:
+            case PUBLISH_CHANGED:
+                Articles article = articlesMapper.selectById(id);
+                if (article == null || !Integer.valueOf(1).equals(article.getStatus())) {
+                    ranking.remove(id);
+                    cards.remove(id);
+                } else if (!ranking.contains(id)) {
+                    seedArticle(article);
+                }
+                break;
+            case UPDATED:
+                if (cards.containsKey(id)) {
+                    reloadCard(id);
+                }
+                break;
+            default:
+                break;
+        }
+        refreshCards();
+    }
+
+    /**
+     * 导入的已发布文章按事件中的值加入排行（新文章的计数都为0），不再逐篇查库
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        for (Articles article : event.getArticles()) {
+            if (Integer.valueOf(1).equals(article.getStatus()) && !ranking.contains(article.getId())) {
+                seedArticle(article);
+            }
+        }
+        refreshCards();
+    }
+
+    /**
+     * 分类、标签改名或删除后重新载入带有分类/标签的列表字段
+     */
+    @EventListener
+    public void onTaxonomyChanged(TaxonomyChangedEvent event) {
+        for (ArticleVO card : cards.values()) {
+            boolean affected = event.getType() == TaxonomyChangedEvent.Type.CATEGORY
+                    ? card.getCategory() != null
+                    : card.getTags() != null && !card.getTags().isEmpty();
+            if (affected) {
+                reloadCard(card.getId());
+            }
+        }
+    }
+
+    /**
+     * 作者资料变化后重新载入该作者的列表字段
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        for (ArticleVO card : cards.values()) {
+            if (card.getAuthor() != null && event.getUserId().equals(card.getAuthor().getId())) {
+                reloadCard(card.getId());
+            }
+        }
+    }
+
+    /**
+     * 载入新进入前K名的文章，移除掉出前K名的
+     */
+    private synchronized void refreshCards() {
+        List<Integer> top = ranking.top(capacity);
+        for (Integer id : top) {
+            if (!cards.containsKey(id)) {
+                loadCard(id);
+            }
+        }
+        cards.keySet().retainAll(new HashSet<>(top));
+    }
+
+    /**
+     * 详情缓存的失效监听与这里的先后顺序不确定，先失效再读，保证读到修改后的内容
+     */
+    private void reloadCard(Integer id) {
+        articleDetailCacheService.evict(id);
+        loadCard(id);
+    }
+
+    private void loadCard(Integer id) {
+        ArticleVO detail = articleDetailCacheService.getArticleDetail(id);
+        if (detail == null) {
+            cards.remove(id);
+            return;
+        }
+        ArticleVO card = new ArticleVO();
+        BeanUtils.copyProperties(detail, card);
+        card.setContent(null);
+        cards.put(id, card);
+    }
+
+    /**
+     * 定期前移基准时间，防止基准分数指数增长溢出
+     */
+    @Scheduled(fixedDelay = 6 * 3600_000L)
+    public void rebase() {
+        ranking.rebase(System.currentTimeMillis());
+    }
+
+    /**
+     * 把文章已有的累计计数记为发生在发布（或创建）时刻的互动
+     */
+    private void seedArticle(Articles article) {
+        ranking.track(article.getId());
+        double base = viewWeight * nullToZero(article.getViewCount())
+                + likeWeight * nullToZero(article.getLikeCount())
+                + commentWeight * nullToZero(article.getCommentCount())
+                + shareWeight * nullToZero(article.getShareCount());
+        LocalDateTime at = article.getPublishTime() != null ? article.getPublishTime() : article.getCreateTime();
+        long atMillis = at == null ? System.currentTimeMillis()
+                : at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        ranking.add(article.getId(), base, atMillis);
+    }
+
+    private static int nullToZero(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.enums.InteractionType;
+import com.example.weijiahome.entity.po.ArticleFavorites;
+import com.example.weijiahome.entity.po.ArticleLikes;
+import com.example.weijiahome.entity.po.CommentLikes;
+import com.example.weijiahome.mapper.ArticleFavoritesMapper;
+import com.example.weijiahome.mapper.ArticleLikesMapper;
+import com.example.weijiahome.mapper.CommentLikesMapper;
+import com.example.weijiahome.service.IInteractionBitmapService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 互动用户位图服务实现类
+ * 位图按需加载，批量判断时缺失的目标合并成一条 IN 查询；RoaringBitmap 非线程安全，读写都对位图对象加锁
+ * 批量加载不是逐key原子的：每次写入记下序号，加载开始后被写过的目标不放入缓存，改为单独原子加载，写入不会丢失
+ */
+@Service
+public class InteractionBitmapServiceImpl implements IInteractionBitmapService {
+
+    @Autowired
+    private ArticleLikesMapper articleLikesMapper;
+    @Autowired
+    private ArticleFavoritesMapper articleFavoritesMapper;
+    @Autowired
+    private CommentLikesMapper commentLikesMapper;
+
+    /**
+     * 每种互动类型的位图占用上限（字节）
+     */
+    @Value("${blog.cache.interaction-bitmap.max-bytes:33554432}")
+    private long maxBytes;
+    /**
+     * 写入后的过期时间（秒），其他节点的写入最多晚这么久可见
+     */
+    @Value("${blog.cache.interaction-bitmap.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final Map<InteractionType, Cache<Integer, RoaringBitmap>> caches = new EnumMap<>(InteractionType.class);
+    /**
+     * 每种互动类型的写入序号，批量加载开始前记下
+     */
+    private final Map<InteractionType, AtomicLong> writeSeqs = new EnumMap<>(InteractionType.class);
+    /**
+     * 目标最近一次写入时的序号，只需覆盖一次批量加载的时长
+     */
+    private final Map<InteractionType, Cache<Integer, Long>> writeStamps = new EnumMap<>(InteractionType.class);
+
+    @PostConstruct
+    public void init() {
+        for (InteractionType type : InteractionType.values()) {
+            caches.put(type, Caffeine.newBuilder()
+                    .maximumWeight(maxBytes)
+                    .weigher((Integer id, RoaringBitmap bitmap) -> 64 + (int) bitmap.getLongSizeInBytes())
+                    .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                    .build());
+            writeSeqs.put(type, new AtomicLong());
+            writeStamps.put(type, Caffeine.newBuilder()
+                    .maximumSize(100_000)
+                    .expireAfterWrite(Duration.ofMinutes(1))
+                    .build());
+        }
+    }
+
+    @Override
+    public boolean contains(InteractionType type, Integer targetId, Integer userId) {
+        if (targetId == null || userId == null) {
+            return false;
+        }
+        RoaringBitmap bitmap = caches.get(type).get(targetId, id -> load(type, Collections.singleton(id)).get(id));
+        synchronized (bitmap) {
+            return bitmap.contains(userId);
+        }
+    }
+
+    @Override
+    public Map<Integer, Boolean> containsAll(InteractionType type, Collection<Integer> targetIds, Integer userId) {
+        Map<Integer, Boolean> result = new LinkedHashMap<>();
+        if (targetIds == null || targetIds.isEmpty()) {
+            return result;
+        }
+        Map<Integer, RoaringBitmap> bitmaps = new HashMap<>(caches.get(type).getAllPresent(targetIds));
+        List<Integer> missing = new ArrayList<>();
+        for (Integer targetId : targetIds) {
+            if (!bitmaps.containsKey(targetId) && !missing.contains(targetId)) {
+                missing.add(targetId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            bitmaps.putAll(loadAll(type, missing));
+        }
+        for (Integer targetId : targetIds) {
+            RoaringBitmap bitmap = bitmaps.get(targetId);
+            boolean hit = false;
+            if (bitmap != null && userId != null) {
+                synchronized (bitmap) {
+                    hit = bitmap.contains(userId);
+                }
+            }
+            result.put(targetId, hit);
+        }
+        return result;
+    }
+
+    @Override
+    public int count(InteractionType type, Integer targetId) {
+        RoaringBitmap bitmap = caches.get(type).get(targetId, id -> load(type, Collections.singleton(id)).get(id));
+        synchronized (bitmap) {
+            return bitmap.getCardinality();
+        }
+    }
+
+    @Override
+    public void add(InteractionType type, Integer targetId, Integer userId) {
+        markWritten(type, targetId);
+        //computeIfPresent 与同一key的加载互斥，不会丢失加载期间的写入
+        caches.get(type).asMap().computeIfPresent(targetId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                bitmap.add(userId);
+                bitmap.runOptimize();
+            }
+            return bitmap;
+        });
+    }
+
+    @Override
+    public void remove(InteractionType type, Integer targetId, Integer userId) {
+        markWritten(type, targetId);
+        caches.get(type).asMap().computeIfPresent(targetId, (id, bitmap) -> {
+            synchronized (bitmap) {
+                bitmap.remove(userId);
+            }
+            return bitmap;
+        });
+    }
+
+    /**
+     * 写库之后、改位图之前调用：序号大于某次批量加载开始时的序号，说明加载结果可能没有包含这次写入
+     */
+    private void markWritten(InteractionType type, Integer targetId) {
+        writeStamps.get(type).put(targetId, writeSeqs.get(type).incrementAndGet());
+    }
+
+    /**
+     * 批量加载缺失的位图，逐个放入缓存（与同一key的写入互斥）
+     * 加载开始后被写过的目标丢弃这次的结果，改用 get(key, fn) 单独原子加载
+     */
+    private Map<Integer, RoaringBitmap> loadAll(InteractionType type, List<Integer> missing) {
+        Cache<Integer, RoaringBitmap> cache = caches.get(type);
+        Cache<Integer, Long> stamps = writeStamps.get(type);
+        long start = writeSeqs.get(type).get();
+        Map<Integer, RoaringBitmap> result = new HashMap<>();
+        load(type, missing).forEach((targetId, loaded) -> {
+            RoaringBitmap bitmap = cache.asMap().compute(targetId, (id, existing) -> {
+                if (existing != null) {
+                    return existing;
+                }
+                Long stamp = stamps.getIfPresent(id);
+                return stamp != null && stamp > start ? null : loaded;
+            });
+            if (bitmap == null) {
+                bitmap = cache.get(targetId, id -> load(type, Collections.singleton(id)).get(id));
+            }
+            result.put(targetId, bitmap);
+        });
+        return result;
+    }
+
+    /**
+     * 一次查询加载多个目标的位图，没有任何记录的目标得到空位图（同样缓存，避免重复查库）
+     */
+    private Map<Integer, RoaringBitmap> load(InteractionType type, Iterable<? extends Integer> ids) {
+        Map<Integer, RoaringBitmap> bitmaps = new HashMap<>();
+        List<Integer> targetIds = new ArrayList<>();
+        for (Integer targetId : ids) {
+            bitmaps.put(targetId, new RoaringBitmap());
+            targetIds.add(targetId);
+        }
+        switch (type) {
+            case ARTICLE_LIKE:
+                QueryWrapper<ArticleLikes> likeQw = new QueryWrapper<>();
+                likeQw.select("article_id", "user_id").in("article_id", targetIds);
+                for (ArticleLikes like : articleLikesMapper.selectList(likeQw)) {
+                    bitmaps.get(like.getArticleId()).add(like.getUserId());
+                }
+                break;
+            case ARTICLE_FAVORITE:
+                QueryWrapper<ArticleFavorites> favoriteQw = new QueryWrapper<>();
+                favoriteQw.select("article_id", "user_id").in("article_id", targetIds);
+                for (ArticleFavorites favorite : articleFavoritesMapper.selectList(favoriteQw)) {
+                    bitmaps.get(favorite.getArticleId()).add(favorite.getUserId());
+                }
+                break;
+            case COMMENT_LIKE:
+                QueryWrapper<CommentLikes> commentLikeQw = new QueryWrapper<>();
+                commentLikeQw.select("comment_id", "user_id").in("comment_id", targetIds);
+                for (CommentLikes like : commentLikesMapper.selectList(commentLikeQw)) {
+                    bitmaps.get(like.getCommentId()).add(like.getUserId());
+                }
+                break;
+            default:
+                break;
+        }
+        bitmaps.values().forEach(RoaringBitmap::runOptimize);
+        return bitmaps;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.enums.ArticleCounterType;
+import com.example.weijiahome.entity.enums.InteractionType;
+import com.example.weijiahome.entity.po.Comments;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.entity.vo.LikeVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.ArticleLikesMapper;
+import com.example.weijiahome.mapper.CommentLikesMapper;
+import com.example.weijiahome.mapper.CommentsMapper;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import com.example.weijiahome.service.IInteractionBitmapService;
+import com.example.weijiahome.service.ILikeService;
+import com.example.weijiahome.utils.CounterBuffer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 点赞服务实现类
+ * 点赞数的返回值 = 已落库的值 + 内存中的增量，不再每次点赞后回查数据行
+ */
+@Service
+public class LikeServiceImpl implements ILikeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeServiceImpl.class);
+    /**
+     * 每条批量更新语句最多包含的评论数
+     */
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    @Autowired
+    private ArticleLikesMapper articleLikesMapper;
+    @Autowired
+    private CommentLikesMapper commentLikesMapper;
+    @Autowired
+    private CommentsMapper commentsMapper;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+    @Autowired
+    private IArticleDetailCacheService articleDetailCacheService;
+    @Autowired
+    private IInteractionBitmapService interactionBitmapService;
+
+    /**
+     * 评论点赞数的内存增量
+     */
+    private final CounterBuffer<Integer> commentLikeDeltas = new CounterBuffer<>();
+    /**
+     * 评论已落库的点赞数，首次访问时读一次，之后随批量写回同步累加
+     */
+    private final Cache<Integer, Long> commentLikeBase = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofMinutes(10))
+            .build();
+
+    @Override
+    public LikeVO likeArticle(Integer userId, Integer articleId, boolean liked) {
+        //文章详情缓存里的点赞数随每次写回同步更新，可作为已落库的值
+        ArticleVO article = articleDetailCacheService.getArticleDetail(articleId);
+        if (article == null) {
+            throw new BusinessException("文章不存在");
+        }
+        int delta = liked
+                ? articleLikesMapper.insertIgnore(userId, articleId)
+                : -articleLikesMapper.deleteLike(userId, articleId);
+        if (delta != 0) {
+            articleCounterService.increment(articleId, ArticleCounterType.LIKE, delta);
+        }
+        if (liked) {
+            interactionBitmapService.add(InteractionType.ARTICLE_LIKE, articleId, userId);
+        } else {
+            interactionBitmapService.remove(InteractionType.ARTICLE_LIKE, articleId, userId);
+        }
+        long base = article.getLikeCount() == null ? 0 : article.getLikeCount();
+        long likes = base + articleCounterService.pending(articleId, ArticleCounterType.LIKE);
+        return likeVO(likes, liked);
+    }
+
+    @Override
+    public LikeVO toggleCommentLike(Integer userId, Integer commentId) {
+        Long base = commentLikeBase.get(commentId, this::loadCommentLikes);
+        if (base == null) {
+            throw new BusinessException("评论不存在");
+        }
+        //先尝试点赞，插不进去说明已经点过，改为取消
+        boolean liked = commentLikesMapper.insertIgnore(userId, commentId) > 0;
+        int delta = liked ? 1 : -commentLikesMapper.deleteLike(userId, commentId);
+        if (delta != 0) {
+            commentLikeDeltas.add(commentId, delta);
+        }
+        if (liked) {
+            interactionBitmapService.add(InteractionType.COMMENT_LIKE, commentId, userId);
+        } else {
+            interactionBitmapService.remove(InteractionType.COMMENT_LIKE, commentId, userId);
+        }
+        return likeVO(base + commentLikeDeltas.pending(commentId), liked);
+    }
+
+    @Override
+    public long pendingCommentLikes(Integer commentId) {
+        return commentLikeDeltas.pending(commentId);
+    }
+
+    /**
+     * 定时把评论点赞增量写回数据库
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${blog.counter.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<Integer, Long> deltas = commentLikeDeltas.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<Integer, Long> chunk = new HashMap<>();
+        for (Map.Entry<Integer, Long> entry : deltas.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() >= FLUSH_BATCH_SIZE) {
+                flushChunk(chunk);
+                chunk = new HashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flushChunk(chunk);
+        }
+    }
+
+    private void flushChunk(Map<Integer, Long> chunk) {
+        try {
+            commentsMapper.addLikeCountDeltas(chunk);
+        } catch (Exception e) {
+            //写库失败时放回缓冲，下次再刷
+            commentLikeDeltas.restore(chunk);
+            logger.error("评论点赞数写库失败，共{}条，下次重试", chunk.size(), e);
+            return;
+        }
+        chunk.forEach((id, delta) -> commentLikeBase.asMap().computeIfPresent(id, (key, base) -> Math.max(0, base + delta)));
+    }
+
+    /**
+     * 应用关闭前把剩余增量写回
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private Long loadCommentLikes(Integer commentId) {
+        Comments comment = commentsMapper.selectById(commentId);
+        if (comment == null) {
+            return null;
+        }
+        return comment.getLikeCount() == null ? 0L : comment.getLikeCount().longValue();
+    }
+
+    private static LikeVO likeVO(long likes, boolean liked) {
+        LikeVO likeVO = new LikeVO();
+        likeVO.setLikes((int) Math.max(0, likes));
+        likeVO.setLiked(liked);
+        return likeVO;
+    }
+}
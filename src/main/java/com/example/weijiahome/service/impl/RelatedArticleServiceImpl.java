@@ -0,0 +1,298 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.po.ArticleCategories;
+import com.example.weijiahome.entity.po.ArticleTags;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.event.ArticleChangedEvent;
+import com.example.weijiahome.event.ArticlesImportedEvent;
+import com.example.weijiahome.mapper.ArticleCategoriesMapper;
+import com.example.weijiahome.mapper.ArticleTagsMapper;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IArticleCounterService;
+import com.example.weijiahome.service.IArticleDetailCacheService;
+import com.example.weijiahome.service.IRelatedArticleService;
+import com.example.weijiahome.utils.BackgroundBuilder;
+import com.example.weijiahome.utils.MinHashLsh;
+import com.example.weijiahome.utils.TextTokenizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * 相关文章服务实现类
+ * 签名分两段：标签/分类段（特征为 "t:标签id"、"c:分类id"）和正文段（标题、摘要、正文分词后相邻两个词组成的片段），
+ * 每段32个哈希、每2个一组共16个band，Jaccard 约0.2以上的文章大概率落入同一个桶
+ * 文章新建、修改、发布状态变化后（事务提交后）重新计算签名；查询只比较同桶的候选，不扫描全部文章、不查库
+ */
+@Service
+public class RelatedArticleServiceImpl implements IRelatedArticleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedArticleServiceImpl.class);
+
+    private static final int HASHES_PER_SEGMENT = 32;
+    private static final int ROWS_PER_BAND = 2;
+    private static final int TAG_SEGMENT = 0;
+    private static final int CONTENT_SEGMENT = 1;
+    /**
+     * 综合相似度中标签段的权重，其余为正文段
+     */
+    private static final double TAG_WEIGHT = 0.6;
+    private static final int SHINGLE_SIZE = 2;
+    /**
+     * 单次查询最多比较的候选数，热门标签形成的大桶不会拖慢查询
+     */
+    private static final int MAX_CANDIDATES = 500;
+    private static final int MAX_LIMIT = 20;
+    /**
+     * 启动时每批读取的文章数
+     */
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+    @Autowired
+    private ArticleTagsMapper articleTagsMapper;
+    @Autowired
+    private ArticleCategoriesMapper articleCategoriesMapper;
+    @Autowired
+    private IArticleDetailCacheService articleDetailCacheService;
+    @Autowired
+    private IArticleCounterService articleCounterService;
+
+    private final MinHashLsh lsh = new MinHashLsh(2, HASHES_PER_SEGMENT, ROWS_PER_BAND);
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready = false;
+    private final BackgroundBuilder builder = new BackgroundBuilder("related-article-indexer", this::rebuild);
+    /**
+     * 构建期间已经由变更事件更新的文章，全量扫描时跳过，避免用旧数据覆盖
+     */
+    private final Set<Integer> touchedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 应用启动后在后台线程中计算全部已发布文章的签名，完成之前相关文章为空
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.start();
+    }
+
+    /**
+     * 构建失败（如启动时数据库暂时不可用）时定期重试，建好之后不再执行
+     */
+    @Scheduled(initialDelayString = "${blog.index.rebuild-retry-ms:60000}",
+            fixedDelayString = "${blog.index.rebuild-retry-ms:60000}")
+    public void retryBuild() {
+        if (!ready) {
+            builder.start();
+        }
+    }
+
+    void rebuild() {
+        long start = System.currentTimeMillis();
+        int afterId = 0;
+        while (true) {
+            List<Articles> batch = articlesMapper.selectPublishedForIndex(afterId, BUILD_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<Integer> ids = batch.stream().map(Articles::getId).collect(Collectors.toList());
+            Map<Integer, Set<String>> taxonomy = loadTaxonomyFeatures(ids);
+            for (Articles article : batch) {
+                afterId = article.getId();
+                if (touchedDuringBuild.contains(article.getId())) {
+                    continue;
+                }
+                int[] signature = signatureOf(article, taxonomy.getOrDefault(article.getId(), Collections.emptySet()));
+                lock.writeLock().lock();
+                try {
+                    lsh.put(article.getId(), signature);
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+        ready = true;
+        touchedDuringBuild.clear();
+        logger.info("相关文章签名计算完成，共{}篇，耗时{}ms", lsh.size(), System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public List<ArticleVO> getRelatedArticles(Integer articleId, int limit) {
+        List<ArticleVO> articles = new ArrayList<>();
+        for (Integer id : relatedIds(articleId, Math.min(Math.max(limit, 1), MAX_LIMIT))) {
+            ArticleVO detail = articleDetailCacheService.getArticleDetail(id);
+            if (detail == null) {
+                continue;
+            }
+            ArticleVO article = articleCounterService.withPending(detail);
+            article.setContent(null);
+            articles.add(article);
+        }
+        return articles;
+    }
+
+    /**
+     * 在同桶候选中按综合相似度取前 limit 个
+     */
+    private List<Integer> relatedIds(Integer articleId, int limit) {
+        if (articleId == null) {
+            return Collections.emptyList();
+        }
+        //小顶堆保留相似度最高的 limit 个：[相似度, 文章id]
+        PriorityQueue<double[]> top = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        lock.readLock().lock();
+        try {
+            int[] signature = lsh.get(articleId);
+            if (signature == null) {
+                return Collections.emptyList();
+            }
+            for (int candidate : lsh.candidates(signature, MAX_CANDIDATES).toArray()) {
+                if (candidate == articleId) {
+                    continue;
+                }
+                int[] other = lsh.get(candidate);
+                double score = TAG_WEIGHT * lsh.similarity(signature, other, TAG_SEGMENT)
+                        + (1 - TAG_WEIGHT) * lsh.similarity(signature, other, CONTENT_SEGMENT);
+                if (score <= 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.add(new double[]{score, candidate});
+                } else if (score > top.peek()[0]) {
+                    top.poll();
+                    top.add(new double[]{score, candidate});
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Integer> ids = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            ids.add((int) top.poll()[1]);
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+
+    /**
+     * 文章变更后（事务提交后）重新计算签名，未发布或已删除的移出
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticleChanged(ArticleChangedEvent event) {
+        Integer id = event.getArticleId();
+        if (!ready) {
+            touchedDuringBuild.add(id);
+        }
+        Articles article = event.getType() == ArticleChangedEvent.Type.DELETED ? null : articlesMapper.selectById(id);
+        int[] signature = null;
+        if (article != null && Integer.valueOf(1).equals(article.getStatus())) {
+            signature = signatureOf(article, loadTaxonomyFeatures(Collections.singletonList(id))
+                    .getOrDefault(id, Collections.emptySet()));
+        }
+        lock.writeLock().lock();
+        try {
+            if (signature == null) {
+                lsh.remove(id);
+            } else {
+                lsh.put(id, signature);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 导入的一批文章：正文取自事件，分类和标签整批读两次，只为已发布的计算签名
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onArticlesImported(ArticlesImportedEvent event) {
+        List<Articles> published = new ArrayList<>();
+        for (Articles article : event.getArticles()) {
+            if (!ready) {
+                touchedDuringBuild.add(article.getId());
+            }
+            if (Integer.valueOf(1).equals(article.getStatus())) {
+                published.add(article);
+            }
+        }
+        if (published.isEmpty()) {
+            return;
+        }
+        Map<Integer, Set<String>> taxonomy = loadTaxonomyFeatures(
+                published.stream().map(Articles::getId).collect(Collectors.toList()));
+        List<int[]> signatures = new ArrayList<>(published.size());
+        for (Articles article : published) {
+            signatures.add(signatureOf(article, taxonomy.getOrDefault(article.getId(), Collections.emptySet())));
+        }
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < published.size(); i++) {
+                lsh.put(published.get(i).getId(), signatures.get(i));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int[] signatureOf(Articles article, Set<String> taxonomy) {
+        return lsh.signature(Arrays.asList(taxonomy, shingles(article)));
+    }
+
+    /**
+     * 批量读取文章的标签、分类，转成特征
+     */
+    private Map<Integer, Set<String>> loadTaxonomyFeatures(List<Integer> articleIds) {
+        Map<Integer, Set<String>> features = new HashMap<>();
+        QueryWrapper<ArticleTags> tagQw = new QueryWrapper<>();
+        tagQw.select("article_id", "tag_id").in("article_id", articleIds);
+        for (ArticleTags relation : articleTagsMapper.selectList(tagQw)) {
+            features.computeIfAbsent(relation.getArticleId(), id -> new HashSet<>()).add("t:" + relation.getTagId());
+        }
+        QueryWrapper<ArticleCategories> categoryQw = new QueryWrapper<>();
+        categoryQw.select("article_id", "category_id").in("article_id", articleIds);
+        for (ArticleCategories relation : articleCategoriesMapper.selectList(categoryQw)) {
+            features.computeIfAbsent(relation.getArticleId(), id -> new HashSet<>()).add("c:" + relation.getCategoryId());
+        }
+        return features;
+    }
+
+    /**
+     * 标题、摘要、正文分词后，相邻 SHINGLE_SIZE 个词组成一个片段；词数不足时用单个词
+     */
+    private static Set<String> shingles(Articles article) {
+        List<String> tokens = new ArrayList<>();
+        tokens.addAll(TextTokenizer.tokenize(article.getTitle()));
+        tokens.addAll(TextTokenizer.tokenize(article.getSummary()));
+        tokens.addAll(TextTokenizer.tokenize(article.getContent()));
+        Set<String> shingles = new HashSet<>();
+        if (tokens.size() < SHINGLE_SIZE) {
+            shingles.addAll(tokens);
+            return shingles;
+        }
+        for (int i = 0; i + SHINGLE_SIZE <= tokens.size(); i++) {
+            shingles.add(String.join(" ", tokens.subList(i, i + SHINGLE_SIZE)));
+        }
+        return shingles;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.po.Articles;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.service.IShareCodeService;
+import com.example.weijiahome.utils.ShareCodeUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 分享码服务实现类
+ * 之前生成的10位随机分享码已经发出去了，启动时一次性读入内存继续可用；新分享码由id算出，不再写库
+ */
+@Service
+public class ShareCodeServiceImpl implements IShareCodeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShareCodeServiceImpl.class);
+
+    @Autowired
+    private ArticlesMapper articlesMapper;
+
+    /**
+     * 旧分享码 -> 文章id
+     */
+    private final Map<String, Integer> legacyCodes = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadLegacyCodes() {
+        try {
+            QueryWrapper<Articles> qw = new QueryWrapper<>();
+            qw.select("id", "share_code").isNotNull("share_code").ne("share_code", "");
+            for (Articles article : articlesMapper.selectList(qw)) {
+                legacyCodes.put(article.getShareCode(), article.getId());
+            }
+            logger.info("旧分享码加载完成，共{}个", legacyCodes.size());
+        } catch (Exception e) {
+            logger.error("旧分享码加载失败", e);
+        }
+    }
+
+    @Override
+    public String codeOf(Integer articleId) {
+        return ShareCodeUtil.encode(articleId);
+    }
+
+    @Override
+    public Integer resolve(String code) {
+        if (code == null) {
+            return null;
+        }
+        if (code.length() == ShareCodeUtil.CODE_LENGTH) {
+            return ShareCodeUtil.decode(code);
+        }
+        return legacyCodes.get(code);
+    }
+}
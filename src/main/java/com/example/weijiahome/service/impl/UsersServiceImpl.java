@@ -11,6 +11,7 @@ import com.example.weijiahome.entity.vo.FollowerVO;
 import com.example.weijiahome.entity.vo.PageFollowerVO;
 import com.example.weijiahome.entity.vo.UsersFollowVO;
 import com.example.weijiahome.entity.vo.favorites.UserFavoritesVO;
+import com.example.weijiahome.event.UserProfileChangedEvent;
 import com.example.weijiahome.mapper.*;
 import com.example.weijiahome.entity.po.Users;
 
@@ -19,13 +20,17 @@ import com.example.weijiahome.service.IUsersService;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.weijiahome.utils.OssUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -50,15 +55,42 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
     private ArticlesMapper articlesMapper;
     @Autowired
     private ArticleLikesMapper articleLikesMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     @Transactional
     @Override
     public String updateAvatar(Integer userId, MultipartFile file) throws IOException {
         String avatarUrl = ossUtil.uploadAvatar(file);
         usersMapper.updateAvatar(userId,avatarUrl);
+        eventPublisher.publishEvent(new UserProfileChangedEvent(this, userId));
         return avatarUrl;
     }
 
+    /**
+     * 更新用户资料
+     * 只复制用户名、邮箱、头像、简介，角色、密码等字段不允许通过资料接口修改
+     * @param userId 当前登录的用户id
+     * @param profile 前端提交的资料，只更新非空字段
+     */
+    @Override
+    public boolean updateProfile(Integer userId, Users profile) {
+        if (userId == null || profile == null) {
+            return false;
+        }
+        Users user = new Users();
+        user.setId(userId);
+        user.setUsername(profile.getUsername());
+        user.setEmail(profile.getEmail());
+        user.setAvatar(profile.getAvatar());
+        user.setBio(profile.getBio());
+        if (!updateById(user)) {
+            return false;
+        }
+        eventPublisher.publishEvent(new UserProfileChangedEvent(this, userId));
+        return true;
+    }
+
     /**
      * 关注指定ID的用户
      * @param userId 当前登录的用户id
@@ -197,6 +229,20 @@ public class UsersServiceImpl extends ServiceImpl<UsersMapper, Users> implements
         return articleLikesMapper.userLikeArticles(mpPage, userId);
     }
 
+    @Override
+    public Map<Integer, Users> getUserSummaries(Collection<Integer> userIds) {
+        Map<Integer, Users> users = new HashMap<>();
+        if (userIds == null || userIds.isEmpty()) {
+            return users;
+        }
+        QueryWrapper<Users> qw = new QueryWrapper<>();
+        qw.select("id", "username", "avatar").in("id", userIds);
+        for (Users user : usersMapper.selectList(qw)) {
+            users.put(user.getId(), user);
+        }
+        return users;
+    }
+
     /**
      * 判断A用户是否关注了B用户
      * @param userId A用户（当前登录用户）
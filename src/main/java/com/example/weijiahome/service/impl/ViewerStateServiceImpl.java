@@ -0,0 +1,79 @@
+package com.example.weijiahome.service.impl;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.weijiahome.entity.enums.InteractionType;
+import com.example.weijiahome.entity.po.UserFollow;
+import com.example.weijiahome.entity.vo.ViewerStateVO;
+import com.example.weijiahome.exception.BusinessException;
+import com.example.weijiahome.mapper.UserFollowMapper;
+import com.example.weijiahome.service.IInteractionBitmapService;
+import com.example.weijiahome.service.IViewerStateService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 当前用户互动状态服务实现类
+ */
+@Service
+public class ViewerStateServiceImpl implements IViewerStateService {
+    /**
+     * 单次最多查询的文章数、作者数
+     */
+    private static final int MAX_IDS = 100;
+
+    @Autowired
+    private IInteractionBitmapService interactionBitmapService;
+    @Autowired
+    private UserFollowMapper userFollowMapper;
+
+    @Override
+    public ViewerStateVO getViewerState(Integer userId, Collection<Integer> articleIds, Collection<Integer> authorIds) {
+        Set<Integer> articles = distinct(articleIds);
+        Set<Integer> authors = distinct(authorIds);
+        if (articles.size() > MAX_IDS || authors.size() > MAX_IDS) {
+            throw new BusinessException("单次最多查询" + MAX_IDS + "篇文章和" + MAX_IDS + "位作者");
+        }
+
+        ViewerStateVO viewerState = new ViewerStateVO();
+        if (!articles.isEmpty()) {
+            Map<Integer, Boolean> liked = interactionBitmapService.containsAll(InteractionType.ARTICLE_LIKE, articles, userId);
+            Map<Integer, Boolean> favorited = interactionBitmapService.containsAll(InteractionType.ARTICLE_FAVORITE, articles, userId);
+            for (Integer articleId : articles) {
+                ViewerStateVO.ArticleState state = new ViewerStateVO.ArticleState();
+                state.setLiked(liked.get(articleId));
+                state.setFavorited(favorited.get(articleId));
+                viewerState.getArticles().put(articleId, state);
+            }
+        }
+        if (!authors.isEmpty()) {
+            //一次查出当前用户关注了其中哪些作者
+            QueryWrapper<UserFollow> qw = new QueryWrapper<>();
+            qw.select("followee_id")
+              .eq("follower_id", userId)
+              .in("followee_id", authors);
+            Set<Integer> followed = new HashSet<>();
+            for (UserFollow follow : userFollowMapper.selectList(qw)) {
+                followed.add(follow.getFolloweeId());
+            }
+            for (Integer authorId : authors) {
+                viewerState.getFollowing().put(authorId, followed.contains(authorId));
+            }
+        }
+        return viewerState;
+    }
+
+    private static Set<Integer> distinct(Collection<Integer> ids) {
+        Set<Integer> result = new LinkedHashSet<>();
+        if (ids != null) {
+            ids.stream().filter(Objects::nonNull).forEach(result::add);
+        }
+        return result;
+    }
+}
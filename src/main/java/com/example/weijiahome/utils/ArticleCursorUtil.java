@@ -0,0 +1,57 @@
+package com.example.weijiahome.utils;
+
+import com.example.weijiahome.entity.enums.ArticleSortField;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.exception.BusinessException;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * 文章列表游标（keyset分页）的编码与解码
+ * 游标内容为 "排序字段|排序方向|最后一行的排序键|最后一行的id"，对前端是不透明的Base64串
+ */
+public class ArticleCursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 用本页最后一行生成下一页的游标
+     */
+    public static String encode(ArticleSortField field, boolean asc, ArticleVO last) {
+        String raw = field.name() + SEPARATOR + (asc ? "ASC" : "DESC") + SEPARATOR
+                + field.valueOf(last) + SEPARATOR + last.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解析前端传回的游标，格式不对时抛出业务异常
+     */
+    public static Cursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException(raw);
+            }
+            Cursor result = new Cursor();
+            result.setField(ArticleSortField.valueOf(parts[0]));
+            result.setAsc("ASC".equals(parts[1]));
+            result.setValue(result.getField().parseValue(parts[2]));
+            result.setId(Integer.valueOf(parts[3]));
+            return result;
+        } catch (RuntimeException e) {
+            throw new BusinessException("分页游标无效");
+        }
+    }
+
+    @Data
+    public static class Cursor {
+        private ArticleSortField field;
+        private boolean asc;
+        private Object value;
+        private Integer id;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.weijiahome.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 在后台守护线程中构建内存索引
+ * 同一时刻最多一个构建线程；构建抛出异常时记录日志并结束，由调用方在索引尚未建好时定期再次 start() 重试
+ */
+public class BackgroundBuilder {
+
+    private static final Logger logger = LoggerFactory.getLogger(BackgroundBuilder.class);
+
+    private final String name;
+    private final Runnable task;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    /**
+     * @param name 线程名，同时用于日志
+     * @param task 构建任务，失败时直接抛出异常
+     */
+    public BackgroundBuilder(String name, Runnable task) {
+        this.name = name;
+        this.task = task;
+    }
+
+    /**
+     * 启动构建线程，已有构建在进行时什么也不做
+     * @return 是否启动了新的构建
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        Thread builder = new Thread(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                logger.error("{} 构建失败，稍后重试", name, e);
+            } finally {
+                running.set(false);
+            }
+        }, name);
+        builder.setDaemon(true);
+        builder.start();
+        return true;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.weijiahome.utils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 内存计数缓冲
+ * 每个key一个LongAdder，高并发累加时线程之间不争用同一个变量；定时取出增量批量落库
+ * 连续若干次取出增量都为0的key从map中移除，只被访问过一次的key不会一直占用内存
+ */
+public class CounterBuffer<K> {
+
+    /**
+     * 连续这么多次取出增量都为0的key被移除
+     */
+    private static final int IDLE_DRAINS_BEFORE_REMOVE = 3;
+
+    private final Map<K, Cell> pending = new ConcurrentHashMap<>();
+
+    /**
+     * 一个key的计数器；移除前先标记 retired，之后累加到它上面的增量由累加方或移除方转存到新的计数器
+     */
+    private static final class Cell {
+        final LongAdder adder = new LongAdder();
+        /**
+         * 连续取出增量为0的次数，只在落库线程上读写
+         */
+        int idleDrains;
+        volatile boolean retired;
+    }
+
+    public void add(K key, long delta) {
+        Cell cell = pending.computeIfAbsent(key, k -> new Cell());
+        cell.adder.add(delta);
+        //计数器已被移除：增量要么已被移除方转存，要么在这里转存（sumThenReset 保证同一笔增量只被取走一次）
+        if (cell.retired) {
+            pending.remove(key, cell);
+            long left = cell.adder.sumThenReset();
+            if (left != 0) {
+                add(key, left);
+            }
+        }
+    }
+
+    /**
+     * 尚未落库的增量
+     */
+    public long pending(K key) {
+        Cell cell = pending.get(key);
+        return cell == null ? 0 : cell.adder.sum();
+    }
+
+    /**
+     * 当前全部非零增量（只读，不清零）
+     */
+    public Map<K, Long> snapshot() {
+        Map<K, Long> deltas = new HashMap<>();
+        pending.forEach((key, cell) -> {
+            long delta = cell.adder.sum();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * 该key当前是否有计数器（最近有过增量）
+     */
+    public boolean contains(K key) {
+        return pending.containsKey(key);
+    }
+
+    /**
+     * 不同key的个数
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * 取出全部非零增量并清零；连续 IDLE_DRAINS_BEFORE_REMOVE 次为0的key移除
+     * 只能由一个线程调用（落库线程）
+     */
+    public Map<K, Long> drain() {
+        Map<K, Long> deltas = new HashMap<>();
+        pending.forEach((key, cell) -> {
+            long delta = cell.adder.sumThenReset();
+            if (delta != 0) {
+                cell.idleDrains = 0;
+                deltas.put(key, delta);
+            } else if (++cell.idleDrains >= IDLE_DRAINS_BEFORE_REMOVE) {
+                retire(key, cell);
+            }
+        });
+        return deltas;
+    }
+
+    /**
+     * 先标记再移除，最后把标记前后落到旧计数器上的增量转存到新计数器
+     */
+    private void retire(K key, Cell cell) {
+        cell.retired = true;
+        pending.remove(key, cell);
+        long left = cell.adder.sumThenReset();
+        if (left != 0) {
+            add(key, left);
+        }
+    }
+
+    /**
+     * 落库失败时把增量放回去，等下次再刷
+     */
+    public void restore(Map<K, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+}
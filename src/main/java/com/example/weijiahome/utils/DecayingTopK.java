@@ -0,0 +1,185 @@
+package com.example.weijiahome.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * 按时间指数衰减的热度排行，只维护前K名
+ * <p>
+ * 分数以固定基准时间epoch记录：t时刻权重为w的互动记为 w * e^(λ(t - epoch))。
+ * 所有分数同乘一个随时间变化的因子才是当前热度，排序不随时间改变，所以只有发生互动的条目需要调整位置。
+ * 基准分数会随时间指数增长，需要定期调用 {@link #rebase(long)} 把基准时间前移。
+ * </p>
+ * 线程安全，所有方法互斥执行
+ */
+public class DecayingTopK {
+
+    private static final Comparator<Ranked> ORDER = Comparator
+            .comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparingInt(r -> r.id);
+
+    /**
+     * 每毫秒的衰减系数 λ = ln2 / 半衰期
+     */
+    private final double lambda;
+    private final int capacity;
+    private long epoch;
+
+    /**
+     * 所有参与排行的条目的基准分数
+     */
+    private final Map<Integer, Double> scores = new HashMap<>();
+    /**
+     * 前K名，按分数从高到低
+     */
+    private final TreeSet<Ranked> top = new TreeSet<>(ORDER);
+
+    public DecayingTopK(long halfLifeMillis, int capacity, long epoch) {
+        this.lambda = Math.log(2) / halfLifeMillis;
+        this.capacity = capacity;
+        this.epoch = epoch;
+    }
+
+    /**
+     * 加入排行（已存在时不变）
+     */
+    public synchronized void track(int id) {
+        if (!scores.containsKey(id)) {
+            update(id, 0);
+        }
+    }
+
+    /**
+     * 记一次互动，未参与排行的条目忽略
+     * @param weight 权重，可以为负（如取消点赞）
+     * @param atMillis 互动发生的时间
+     */
+    public synchronized void add(int id, double weight, long atMillis) {
+        Double old = scores.get(id);
+        if (old == null) {
+            return;
+        }
+        update(id, Math.max(0, old + weight * Math.exp(lambda * (atMillis - epoch))));
+    }
+
+    /**
+     * 批量记互动，整批只加一次锁，未参与排行的条目忽略
+     * @param weights 条目id -> 权重
+     * @param atMillis 互动发生的时间
+     */
+    public synchronized void addAll(Map<Integer, Double> weights, long atMillis) {
+        double factor = Math.exp(lambda * (atMillis - epoch));
+        weights.forEach((id, weight) -> {
+            Double old = scores.get(id);
+            if (old != null) {
+                update(id, Math.max(0, old + weight * factor));
+            }
+        });
+    }
+
+    /**
+     * 移出排行
+     */
+    public synchronized void remove(int id) {
+        Double old = scores.remove(id);
+        if (old != null && top.remove(new Ranked(id, old))) {
+            refill();
+        }
+    }
+
+    public synchronized boolean contains(int id) {
+        return scores.containsKey(id);
+    }
+
+    /**
+     * 前limit名的id，按热度从高到低，O(limit)
+     */
+    public synchronized List<Integer> top(int limit) {
+        List<Integer> ids = new ArrayList<>(Math.min(limit, top.size()));
+        Iterator<Ranked> iterator = top.iterator();
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(iterator.next().id);
+        }
+        return ids;
+    }
+
+    /**
+     * 条目在nowMillis时刻的热度
+     */
+    public synchronized double score(int id, long nowMillis) {
+        Double score = scores.get(id);
+        return score == null ? 0 : score * Math.exp(-lambda * (nowMillis - epoch));
+    }
+
+    public synchronized int size() {
+        return scores.size();
+    }
+
+    /**
+     * 把基准时间移到newEpoch，所有分数同乘同一因子，排序不变
+     */
+    public synchronized void rebase(long newEpoch) {
+        double factor = Math.exp(-lambda * (newEpoch - epoch));
+        epoch = newEpoch;
+        scores.replaceAll((id, score) -> score * factor);
+        List<Ranked> ranked = new ArrayList<>(top);
+        top.clear();
+        for (Ranked r : ranked) {
+            top.add(new Ranked(r.id, r.score * factor));
+        }
+    }
+
+    private void update(int id, double score) {
+        Double old = scores.put(id, score);
+        boolean wasTop = old != null && top.remove(new Ranked(id, old));
+        //前K名中的条目分数下降，可能被其余条目超过，重新选出补位者（包括它自己）
+        if (wasTop && score < old) {
+            refill();
+            return;
+        }
+        Ranked ranked = new Ranked(id, score);
+        if (top.size() < capacity) {
+            top.add(ranked);
+        } else if (ORDER.compare(ranked, top.last()) < 0) {
+            top.add(ranked);
+            top.pollLast();
+        }
+    }
+
+    /**
+     * 前K名不满时从全部条目中补齐，O(N)，只在前K名中的条目分数下降或被移除时发生
+     */
+    private void refill() {
+        while (top.size() < capacity && top.size() < scores.size()) {
+            Ranked best = null;
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                Ranked candidate = new Ranked(entry.getKey(), entry.getValue());
+                if (top.contains(candidate)) {
+                    continue;
+                }
+                if (best == null || ORDER.compare(candidate, best) < 0) {
+                    best = candidate;
+                }
+            }
+            if (best == null) {
+                return;
+            }
+            top.add(best);
+        }
+    }
+
+    private static final class Ranked {
+        private final int id;
+        private final double score;
+
+        private Ranked(int id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.weijiahome.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * 内存倒排索引，BM25打分
+ * 每次写入文档都分配一个递增的槽位号，倒排表只追加槽位号，因此天然有序，多词查询可以按有序表求交集；
+ * 文档更新或删除时旧槽位只打删除标记，删除标记过多时整体压缩一次
+ */
+public class InvertedIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    /**
+     * 删除标记超过该数量且超过存活文档数一半时触发压缩
+     */
+    private static final int COMPACT_MIN_DEAD = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Posting> postings = new HashMap<>();
+    /**
+     * 文档id -> 当前存活槽位
+     */
+    private final Map<Integer, Integer> slotOfDoc = new HashMap<>();
+    private int[] docOfSlot = new int[1024];
+    private int[] lengthOfSlot = new int[1024];
+    private final BitSet dead = new BitSet();
+    private int nextSlot = 0;
+    private int deadCount = 0;
+    private long totalLength = 0;
+
+    /**
+     * 写入或替换一篇文档
+     * @param docId 文档id
+     * @param termFrequencies 词 -> 词频（可以是按字段加权后的词频）
+     */
+    public void put(int docId, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+            int slot = nextSlot++;
+            ensureCapacity(slot + 1);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new Posting()).append(slot, entry.getValue());
+                length += entry.getValue();
+            }
+            docOfSlot[slot] = docId;
+            lengthOfSlot[slot] = length;
+            totalLength += length;
+            slotOfDoc.put(docId, slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除一篇文档
+     */
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotOfDoc.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 查询同时包含全部查询词的文档，按BM25得分从高到低返回前limit个
+     * @param terms 查询词
+     * @param limit 返回的最多文档数
+     * @param filter 额外的文档过滤条件，可为null
+     */
+    public Hits search(Collection<String> terms, int limit, IntPredicate filter) {
+        lock.readLock().lock();
+        try {
+            List<Posting> lists = new ArrayList<>();
+            for (String term : new LinkedHashSet<>(terms)) {
+                Posting posting = postings.get(term);
+                if (posting == null) {
+                    return new Hits(0, new ArrayList<>());
+                }
+                lists.add(posting);
+            }
+            if (lists.isEmpty() || slotOfDoc.isEmpty()) {
+                return new Hits(0, new ArrayList<>());
+            }
+            //从最短的倒排表出发求交集
+            lists.sort(Comparator.comparingInt(p -> p.size));
+            int docCount = slotOfDoc.size();
+            float avgLength = Math.max(1f, (float) totalLength / docCount);
+            float[] idf = new float[lists.size()];
+            for (int j = 0; j < lists.size(); j++) {
+                int df = Math.min(lists.get(j).size, docCount);
+                idf[j] = (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+            int[] positions = new int[lists.size()];
+            PriorityQueue<ScoredDoc> top = new PriorityQueue<>(Comparator.comparingDouble(e -> e.score));
+            int total = 0;
+            Posting first = lists.get(0);
+            outer:
+            for (int i = 0; i < first.size; i++) {
+                int slot = first.slots[i];
+                if (dead.get(slot)) {
+                    continue;
+                }
+                float norm = K1 * (1 - B + B * lengthOfSlot[slot] / avgLength);
+                float score = bm25(first.tfs[i], norm, idf[0]);
+                for (int j = 1; j < lists.size(); j++) {
+                    Posting other = lists.get(j);
+                    int p = other.seek(slot, positions[j]);
+                    positions[j] = p;
+                    if (p >= other.size) {
+                        break outer;
+                    }
+                    if (other.slots[p] != slot) {
+                        continue outer;
+                    }
+                    score += bm25(other.tfs[p], norm, idf[j]);
+                }
+                int docId = docOfSlot[slot];
+                if (filter != null && !filter.test(docId)) {
+                    continue;
+                }
+                total++;
+                if (limit <= 0) {
+                    continue;
+                }
+                if (top.size() < limit) {
+                    top.offer(new ScoredDoc(score, docId));
+                } else if (top.peek().score < score) {
+                    top.poll();
+                    top.offer(new ScoredDoc(score, docId));
+                }
+            }
+            List<ScoredDoc> ranked = new ArrayList<>(top);
+            ranked.sort((a, b) -> Float.compare(b.score, a.score));
+            List<Integer> ids = new ArrayList<>(ranked.size());
+            for (ScoredDoc entry : ranked) {
+                ids.add(entry.docId);
+            }
+            return new Hits(total, ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static float bm25(int tf, float norm, float idf) {
+        return idf * tf * (K1 + 1) / (tf + norm);
+    }
+
+    private void removeInternal(int docId) {
+        Integer slot = slotOfDoc.remove(docId);
+        if (slot == null) {
+            return;
+        }
+        dead.set(slot);
+        deadCount++;
+        totalLength -= lengthOfSlot[slot];
+        if (deadCount >= COMPACT_MIN_DEAD && deadCount > slotOfDoc.size() / 2) {
+            compact();
+        }
+    }
+
+    /**
+     * 去掉已删除的槽位并重新编号，编号保持原有顺序，倒排表仍然有序
+     */
+    private void compact() {
+        int[] remap = new int[nextSlot];
+        int live = 0;
+        for (int slot = 0; slot < nextSlot; slot++) {
+            remap[slot] = dead.get(slot) ? -1 : live++;
+        }
+        int[] newDocOfSlot = new int[Math.max(1024, live * 2)];
+        int[] newLengthOfSlot = new int[newDocOfSlot.length];
+        for (int slot = 0; slot < nextSlot; slot++) {
+            if (remap[slot] >= 0) {
+                newDocOfSlot[remap[slot]] = docOfSlot[slot];
+                newLengthOfSlot[remap[slot]] = lengthOfSlot[slot];
+            }
+        }
+        Iterator<Map.Entry<String, Posting>> it = postings.entrySet().iterator();
+        while (it.hasNext()) {
+            Posting posting = it.next().getValue();
+            posting.remap(remap);
+            if (posting.size == 0) {
+                it.remove();
+            }
+        }
+        slotOfDoc.replaceAll((docId, slot) -> remap[slot]);
+        docOfSlot = newDocOfSlot;
+        lengthOfSlot = newLengthOfSlot;
+        dead.clear();
+        deadCount = 0;
+        nextSlot = live;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > docOfSlot.length) {
+            int newLength = Math.max(capacity, docOfSlot.length * 2);
+            docOfSlot = Arrays.copyOf(docOfSlot, newLength);
+            lengthOfSlot = Arrays.copyOf(lengthOfSlot, newLength);
+        }
+    }
+
+    /**
+     * 一个词的倒排表：有序槽位号 + 对应词频
+     */
+    private static class Posting {
+        private int[] slots = new int[4];
+        private int[] tfs = new int[4];
+        private int size;
+
+        void append(int slot, int tf) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            slots[size] = slot;
+            tfs[size] = tf;
+            size++;
+        }
+
+        /**
+         * 从from开始找第一个 >= slot 的位置（倍增后二分）
+         */
+        int seek(int slot, int from) {
+            int step = 1;
+            int low = from;
+            int high = from;
+            while (high < size && slots[high] < slot) {
+                low = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            high = Math.min(high, size);
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (slots[mid] < slot) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void remap(int[] remap) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int slot = remap[slots[i]];
+                if (slot >= 0) {
+                    slots[n] = slot;
+                    tfs[n] = tfs[i];
+                    n++;
+                }
+            }
+            size = n;
+            if (n < slots.length / 4) {
+                slots = Arrays.copyOf(slots, Math.max(4, n));
+                tfs = Arrays.copyOf(tfs, Math.max(4, n));
+            }
+        }
+    }
+
+    /**
+     * 候选堆中的元素，文档id单独用int保存，float只能精确表示2^24以内的整数
+     */
+    private static class ScoredDoc {
+        private final float score;
+        private final int docId;
+
+        ScoredDoc(float score, int docId) {
+            this.score = score;
+            this.docId = docId;
+        }
+    }
+
+    /**
+     * 查询结果：命中总数 + 得分最高的文档id
+     */
+    public static class Hits {
+        private final int total;
+        private final List<Integer> ids;
+
+        public Hits(int total, List<Integer> ids) {
+            this.total = total;
+            this.ids = ids;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public List<Integer> getIds() {
+            return ids;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.weijiahome.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按行计算两段文本的差异（Myers算法），并编码成紧凑的文本格式
+ * 编码格式：每个操作一行，"=n" 复制原文n行，"-n" 跳过原文n行，"+n" 后跟n行新内容
+ */
+public class LineDelta {
+
+    private static final int EQUAL = 0;
+    private static final int DELETE = 1;
+    private static final int INSERT = 2;
+
+    private LineDelta() {
+    }
+
+    /**
+     * 计算从 base 到 target 的差异
+     * @param maxEdits 允许的最大编辑行数，超过时返回null（差异太大，调用方应改存全文）
+     */
+    public static String encode(String base, String target, int maxEdits) {
+        String[] a = split(base);
+        String[] b = split(target);
+        //先去掉相同的开头和结尾，编辑通常集中在中间一小段
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+            suffix++;
+        }
+        String[] midA = Arrays.copyOfRange(a, prefix, a.length - suffix);
+        String[] midB = Arrays.copyOfRange(b, prefix, b.length - suffix);
+        int[] edits = diff(midA, midB, maxEdits);
+        if (edits == null) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder();
+        appendRun(out, EQUAL, prefix);
+        int y = 0;
+        int i = 0;
+        while (i < edits.length) {
+            int type = edits[i];
+            int run = 1;
+            while (i + run < edits.length && edits[i + run] == type) {
+                run++;
+            }
+            appendRun(out, type, run);
+            if (type == INSERT) {
+                for (int j = 0; j < run; j++) {
+                    out.append(midB[y + j]).append('\n');
+                }
+            }
+            if (type != DELETE) {
+                y += run;
+            }
+            i += run;
+        }
+        appendRun(out, EQUAL, suffix);
+        return out.toString();
+    }
+
+    /**
+     * 把差异应用到 base 上，得到目标文本
+     */
+    public static String apply(String base, String delta) {
+        String[] a = split(base);
+        List<String> result = new ArrayList<>(a.length);
+        int x = 0;
+        int pos = 0;
+        while (pos < delta.length()) {
+            int lineEnd = delta.indexOf('\n', pos);
+            char op = delta.charAt(pos);
+            int count = Integer.parseInt(delta.substring(pos + 1, lineEnd));
+            pos = lineEnd + 1;
+            switch (op) {
+                case '=':
+                    for (int j = 0; j < count; j++) {
+                        result.add(a[x++]);
+                    }
+                    break;
+                case '-':
+                    x += count;
+                    break;
+                case '+':
+                    for (int j = 0; j < count; j++) {
+                        int end = delta.indexOf('\n', pos);
+                        result.add(delta.substring(pos, end));
+                        pos = end + 1;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("无法识别的差异操作：" + op);
+            }
+        }
+        return String.join("\n", result);
+    }
+
+    private static String[] split(String text) {
+        return (text == null ? "" : text).split("\n", -1);
+    }
+
+    private static void appendRun(StringBuilder out, int type, int count) {
+        if (count == 0) {
+            return;
+        }
+        out.append(type == EQUAL ? '=' : type == DELETE ? '-' : '+').append(count).append('\n');
+    }
+
+    /**
+     * Myers O(ND) 差异算法，返回按顺序排列的编辑操作（EQUAL/DELETE/INSERT）
+     * 记录每一步的V数组用于回溯，内存为 O(D^2)，因此用 maxEdits 限制D
+     */
+    private static int[] diff(String[] a, String[] b, int maxEdits) {
+        int n = a.length;
+        int m = b.length;
+        int max = Math.min(n + m, maxEdits);
+        int offset = max + 1;
+        int[] v = new int[2 * max + 3];
+        List<int[]> trace = new ArrayList<>();
+        for (int d = 0; d <= max; d++) {
+            trace.add(Arrays.copyOfRange(v, offset - d - 1, offset + d + 2));
+            for (int k = -d; k <= d; k += 2) {
+                int x;
+                if (k == -d || (k != d && v[offset + k - 1] < v[offset + k + 1])) {
+                    x = v[offset + k + 1];
+                } else {
+                    x = v[offset + k - 1] + 1;
+                }
+                int y = x - k;
+                while (x < n && y < m && a[x].equals(b[y])) {
+                    x++;
+                    y++;
+                }
+                v[offset + k] = x;
+                if (x >= n && y >= m) {
+                    return backtrack(trace, n, m, d);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 从终点沿记录的V数组回溯出编辑路径
+     * trace.get(d) 保存第d步开始前 k∈[-d-1, d+1] 的V值
+     */
+    private static int[] backtrack(List<int[]> trace, int n, int m, int dEnd) {
+        List<Integer> reversed = new ArrayList<>(n + m);
+        int x = n;
+        int y = m;
+        for (int d = dEnd; d > 0; d--) {
+            int[] v = trace.get(d);
+            int base = d + 1; // v[base + k] 对应 k
+            int k = x - y;
+            int prevK;
+            if (k == -d || (k != d && v[base + k - 1] < v[base + k + 1])) {
+                prevK = k + 1;
+            } else {
+                prevK = k - 1;
+            }
+            int prevX = v[base + prevK];
+            int prevY = prevX - prevK;
+            while (x > prevX && y > prevY) {
+                reversed.add(EQUAL);
+                x--;
+                y--;
+            }
+            reversed.add(x == prevX ? INSERT : DELETE);
+            x = prevX;
+            y = prevY;
+        }
+        while (x > 0 && y > 0) {
+            reversed.add(EQUAL);
+            x--;
+            y--;
+        }
+        int[] edits = new int[reversed.size()];
+        for (int i = 0; i < edits.length; i++) {
+            edits[i] = reversed.get(edits.length - 1 - i);
+        }
+        return edits;
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.weijiahome.utils;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * MinHash 签名 + LSH 分桶
+ * 签名分成若干段（如标签段、正文段），每段 hashes 个哈希函数，按 rows 个一组切成 band；
+ * 两篇文章某个 band 完全相同即落入同一个桶，成为候选，再用签名逐位比较估算每段的 Jaccard 相似度
+ * 某段特征为空时该段的 band 不入桶，避免所有空集合互相成为候选
+ * 非线程安全，由调用方加锁
+ */
+public class MinHashLsh {
+
+    private static final int EMPTY = Integer.MAX_VALUE;
+
+    private final int segments;
+    private final int hashes;
+    private final int rows;
+    private final int bandsPerSegment;
+    private final Map<Integer, int[]> signatures = new HashMap<>();
+    /**
+     * (band序号, band哈希) -> 文章id集合
+     */
+    private final Map<Long, RoaringBitmap> buckets = new HashMap<>();
+
+    /**
+     * @param segments 签名段数
+     * @param hashes 每段的哈希函数个数，须为 rows 的整数倍
+     * @param rows 每个 band 的行数
+     */
+    public MinHashLsh(int segments, int hashes, int rows) {
+        if (hashes % rows != 0) {
+            throw new IllegalArgumentException("hashes必须是rows的整数倍");
+        }
+        this.segments = segments;
+        this.hashes = hashes;
+        this.rows = rows;
+        this.bandsPerSegment = hashes / rows;
+    }
+
+    /**
+     * 计算签名
+     * @param features 每段的特征集合，长度等于段数
+     */
+    public int[] signature(List<? extends Collection<String>> features) {
+        int[] signature = new int[segments * hashes];
+        for (int s = 0; s < segments; s++) {
+            int from = s * hashes;
+            for (int i = 0; i < hashes; i++) {
+                signature[from + i] = EMPTY;
+            }
+            for (String feature : features.get(s)) {
+                //双重哈希：h_i = h1 + i*h2，用一次64位哈希模拟 hashes 个独立哈希函数
+                long h = mix64(feature.hashCode() * 0x9E3779B97F4A7C15L + feature.length());
+                int h1 = (int) h;
+                int h2 = (int) (h >>> 32) | 1;
+                for (int i = 0; i < hashes; i++) {
+                    int value = (h1 + i * h2) & 0x7FFFFFFF;
+                    if (value < signature[from + i]) {
+                        signature[from + i] = value;
+                    }
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * 放入（或替换）一篇文章的签名
+     */
+    public void put(int id, int[] signature) {
+        remove(id);
+        signatures.put(id, signature);
+        for (int band = 0; band < segments * bandsPerSegment; band++) {
+            if (signature[band * rows] != EMPTY) {
+                buckets.computeIfAbsent(bucketKey(signature, band), key -> new RoaringBitmap()).add(id);
+            }
+        }
+    }
+
+    public void remove(int id) {
+        int[] signature = signatures.remove(id);
+        if (signature == null) {
+            return;
+        }
+        for (int band = 0; band < segments * bandsPerSegment; band++) {
+            if (signature[band * rows] == EMPTY) {
+                continue;
+            }
+            Long key = bucketKey(signature, band);
+            RoaringBitmap bucket = buckets.get(key);
+            if (bucket != null) {
+                bucket.remove(id);
+                if (bucket.isEmpty()) {
+                    buckets.remove(key);
+                }
+            }
+        }
+    }
+
+    public int[] get(int id) {
+        return signatures.get(id);
+    }
+
+    public int size() {
+        return signatures.size();
+    }
+
+    /**
+     * 与给定签名至少有一个 band 相同的文章，小桶优先，最多返回 maxCandidates 个
+     */
+    public RoaringBitmap candidates(int[] signature, int maxCandidates) {
+        List<RoaringBitmap> matched = new ArrayList<>();
+        for (int band = 0; band < segments * bandsPerSegment; band++) {
+            if (signature[band * rows] == EMPTY) {
+                continue;
+            }
+            RoaringBitmap bucket = buckets.get(bucketKey(signature, band));
+            if (bucket != null) {
+                matched.add(bucket);
+            }
+        }
+        //小桶的相似度更有区分度，热门标签形成的大桶最后合并
+        matched.sort((a, b) -> Integer.compare(a.getCardinality(), b.getCardinality()));
+        RoaringBitmap result = new RoaringBitmap();
+        for (RoaringBitmap bucket : matched) {
+            if (result.getCardinality() >= maxCandidates) {
+                break;
+            }
+            result.or(bucket);
+        }
+        return result;
+    }
+
+    /**
+     * 估算两个签名某一段的 Jaccard 相似度（相同位置取值相同的比例），任一方该段为空时为0
+     */
+    public double similarity(int[] a, int[] b, int segment) {
+        int from = segment * hashes;
+        if (a[from] == EMPTY || b[from] == EMPTY) {
+            return 0;
+        }
+        int same = 0;
+        for (int i = from; i < from + hashes; i++) {
+            if (a[i] == b[i]) {
+                same++;
+            }
+        }
+        return (double) same / hashes;
+    }
+
+    private long bucketKey(int[] signature, int band) {
+        long h = band;
+        for (int i = band * rows; i < (band + 1) * rows; i++) {
+            h = h * 0x100000001B3L + signature[i];
+        }
+        //高位放 band 序号，不同 band 的相同取值不会落入同一个桶
+        return ((long) band << 48) ^ (mix64(h) & 0xFFFFFFFFFFFFL);
+    }
+
+    /**
+     * MurmurHash3 的64位收尾混合函数
+     */
+    private static long mix64(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB93FE53B5A99L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -1,10 +1,71 @@
 package com.example.weijiahome.utils;
 
-import java.util.UUID;
+import java.math.BigInteger;
+import java.util.Arrays;
 
+/**
+ * 文章分享码
+ * 分享码由文章id直接算出：先用仿射变换 x -> (A*x + B) mod 62^6 打乱（A与62^6互素，是一一映射），
+ * 再按打乱顺序的62进制字母表编码成6位。不同id的分享码必然不同，也可以反算回id，无需存库和查库。
+ */
 public class ShareCodeUtil {
-    // 生成10位唯一分享码（UUID截取，避免重复）
-    public static String generateShareCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 10);
+    /**
+     * 分享码长度
+     */
+    public static final int CODE_LENGTH = 6;
+
+    private static final String ALPHABET = "tA8DwRWQv6pPoBzfLGOrTcSZEieaNdXUb93h0mFCuK2I5lkH4yqj1YnVgM7Jsx";
+    private static final int BASE = ALPHABET.length();
+    private static final BigInteger MODULUS = BigInteger.valueOf(BASE).pow(CODE_LENGTH);
+    /**
+     * 乘数，奇数且不是31的倍数，与 62^6 = 2^6 * 31^6 互素
+     */
+    private static final BigInteger A = BigInteger.valueOf(12_728_783_705L);
+    private static final BigInteger A_INVERSE = A.modInverse(MODULUS);
+    private static final BigInteger B = BigInteger.valueOf(31_415_926_535L);
+
+    private static final int[] INDEX = new int[128];
+
+    static {
+        Arrays.fill(INDEX, -1);
+        for (int i = 0; i < BASE; i++) {
+            INDEX[ALPHABET.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * 文章id -> 分享码
+     */
+    public static String encode(int articleId) {
+        if (articleId < 0) {
+            throw new IllegalArgumentException("文章id不能为负数");
+        }
+        long value = A.multiply(BigInteger.valueOf(articleId)).add(B).mod(MODULUS).longValue();
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * 分享码 -> 文章id，格式不对或超出id范围时返回null
+     */
+    public static Integer decode(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return null;
+        }
+        long value = 0;
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = code.charAt(i);
+            int digit = c < INDEX.length ? INDEX[c] : -1;
+            if (digit < 0) {
+                return null;
+            }
+            value = value * BASE + digit;
+        }
+        long id = BigInteger.valueOf(value).subtract(B).multiply(A_INVERSE).mod(MODULUS).longValue();
+        return id <= Integer.MAX_VALUE ? (int) id : null;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+package com.example.weijiahome.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 分层时间轮：最底层每格 tickMs，每层 wheelSize 格，超出本层范围的任务放到上一层（每格为下一层一整圈）
+ * 添加任务 O(1)；推进时间时取出到期格子，上层格子到期后把任务重新放回下层
+ * 到期时间向上取整到 tickMs，任务不会提前触发，最多延后一格
+ * 线程安全（方法加锁），由调用方的单个线程定时调用 advance 推进
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<Entry<T>>[] buckets;
+    /**
+     * 当前时间，向下取整到 tickMs
+     */
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    private int size;
+
+    private static final class Entry<T> {
+        final T item;
+        final long expiration;
+
+        Entry(T item, long expiration) {
+            this.item = item;
+            this.expiration = expiration;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.buckets = new List[wheelSize];
+        this.currentTime = startMs - startMs % tickMs;
+    }
+
+    /**
+     * 添加任务
+     * @return 已到期时返回false，由调用方立即执行
+     */
+    public synchronized boolean add(T item, long expirationMs) {
+        //向上取整到格子边界，保证不提前触发
+        long aligned = (expirationMs + tickMs - 1) / tickMs * tickMs;
+        boolean added = addEntry(new Entry<>(item, aligned));
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * 推进到指定时间，返回期间到期的任务
+     */
+    public synchronized List<T> advance(long nowMs) {
+        List<Entry<T>> drained = new ArrayList<>();
+        advanceLevels(nowMs, drained);
+        List<T> due = new ArrayList<>();
+        for (Entry<T> entry : drained) {
+            //上层格子里的任务未必已到期，放回更低的层
+            if (!addEntry(entry)) {
+                due.add(entry.item);
+                size--;
+            }
+        }
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private boolean addEntry(Entry<T> entry) {
+        if (entry.expiration < currentTime + tickMs) {
+            return false;
+        }
+        if (entry.expiration < currentTime + interval) {
+            int index = (int) ((entry.expiration / tickMs) % wheelSize);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(interval, wheelSize, currentTime);
+        }
+        return overflow.addEntry(entry);
+    }
+
+    private void advanceLevels(long nowMs, List<Entry<T>> drained) {
+        while (currentTime + tickMs <= nowMs) {
+            currentTime += tickMs;
+            int index = (int) ((currentTime / tickMs) % wheelSize);
+            if (buckets[index] != null) {
+                drained.addAll(buckets[index]);
+                buckets[index] = null;
+            }
+        }
+        if (overflow != null) {
+            overflow.advanceLevels(nowMs, drained);
+        }
+    }
+}
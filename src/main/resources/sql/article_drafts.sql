@@ -0,0 +1,16 @@
+-- 文章草稿（编辑器自动保存）
+-- 每个作者每篇文章只保留最新一份草稿；article_id = 0 表示尚未创建的新文章
+-- 自动保存先合并在内存中，停止输入一段时间后（或显式提交时）才用 INSERT ... ON DUPLICATE KEY UPDATE 写入
+CREATE TABLE IF NOT EXISTS blog.article_drafts
+(
+    author_id   INT          NOT NULL COMMENT '作者id',
+    article_id  INT          NOT NULL COMMENT '文章id，0表示新文章',
+    title       VARCHAR(255) NULL,
+    content     LONGTEXT     NULL,
+    summary     VARCHAR(500) NULL,
+    cover_image VARCHAR(500) NULL,
+    category_id INT          NULL,
+    tag_ids     VARCHAR(500) NULL COMMENT '逗号分隔的标签id',
+    update_time DATETIME     NOT NULL COMMENT '最后一次保存的时间',
+    PRIMARY KEY (author_id, article_id)
+) COMMENT '文章草稿';
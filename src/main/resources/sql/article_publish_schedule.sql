@@ -0,0 +1,12 @@
+-- 文章定时发布计划
+-- 每篇文章最多一条；到期时各节点都尝试按 (article_id, publish_time) 删除该行，删除成功的节点负责把文章改为已发布
+CREATE TABLE IF NOT EXISTS blog.article_publish_schedule
+(
+    article_id   INT      NOT NULL COMMENT '文章id',
+    publish_time DATETIME NOT NULL COMMENT '计划发布时间',
+    PRIMARY KEY (article_id),
+    KEY idx_publish_time (publish_time)
+) COMMENT '文章定时发布计划';
+
+-- 各节点定期按发布时间查询最近发布的文章（对账），刷新由其他节点发布的文章在本地的缓存和索引
+ALTER TABLE blog.articles ADD KEY idx_articles_publish_time (publish_time);
@@ -0,0 +1,6 @@
+-- 发布计划记录设置前文章的发布状态和发布时间
+-- 取消定时发布时据此还原文章；改期不覆盖这两列，始终还原到第一次设置计划之前的状态
+-- 已有计划的两列为NULL，取消时文章保持未发布
+ALTER TABLE blog.article_publish_schedule
+    ADD COLUMN previous_status       INT      NULL COMMENT '设置计划前的发布状态' AFTER publish_time,
+    ADD COLUMN previous_publish_time DATETIME NULL COMMENT '设置计划前的发布时间' AFTER previous_status;
@@ -0,0 +1,5 @@
+-- 修订历史记录正文摘要
+-- 修改文章时用最新版本的摘要判断正文是否被绕过修订服务改过（只比长度会漏掉等长的修改）
+-- 已有记录的摘要为NULL，遇到时退回按长度比较，下一次修改后就有摘要
+ALTER TABLE blog.article_revisions
+    ADD COLUMN content_hash CHAR(32) NULL COMMENT '该版本正文UTF-8字节的MD5（十六进制）' AFTER content_length;
@@ -0,0 +1,16 @@
+-- 文章修订历史
+-- 每隔若干个版本存一次全文快照，其余版本只存与上一版本的按行差异；data 均为 gzip 压缩后的 UTF-8 文本
+-- 还原任一版本最多读取一个快照加上 (快照间隔 - 1) 个差异
+CREATE TABLE IF NOT EXISTS blog.article_revisions
+(
+    id             BIGINT       NOT NULL AUTO_INCREMENT,
+    article_id     INT          NOT NULL COMMENT '文章id',
+    revision       INT          NOT NULL COMMENT '版本号，从1开始',
+    snapshot       TINYINT      NOT NULL COMMENT '1=全文快照，0=与上一版本的差异',
+    title          VARCHAR(255) NOT NULL COMMENT '该版本的标题',
+    data           MEDIUMBLOB   NOT NULL COMMENT 'gzip压缩的全文或差异',
+    content_length INT          NOT NULL COMMENT '该版本正文的字符数',
+    create_time    DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id),
+    UNIQUE KEY uk_article_revision (article_id, revision)
+) COMMENT '文章修订历史';
@@ -0,0 +1,9 @@
+-- 文章分平台分享次数
+-- 分享次数先在内存中累加，定时用 INSERT ... ON DUPLICATE KEY UPDATE 批量写入；文章总分享数仍记在 articles.share_count
+CREATE TABLE IF NOT EXISTS blog.article_share_stats
+(
+    article_id  INT         NOT NULL COMMENT '文章id',
+    platform    VARCHAR(32) NOT NULL COMMENT '分享平台（小写）',
+    share_count BIGINT      NOT NULL DEFAULT 0 COMMENT '分享次数',
+    PRIMARY KEY (article_id, platform)
+) COMMENT '文章分平台分享次数';
@@ -0,0 +1,28 @@
+-- 文章列表排序列改为 NOT NULL 并建 (排序列, id) 联合索引
+-- 列表按 ORDER BY 排序列, id 排序，游标翻页用 (排序列, id) < (?, ?) 定位；
+-- 排序列不能为NULL（不再需要 IFNULL 表达式），才能直接沿联合索引扫描，深翻页不再 filesort
+
+-- 1. 补齐历史数据中的NULL
+UPDATE blog.articles SET create_time = COALESCE(update_time, publish_time, NOW()) WHERE create_time IS NULL;
+UPDATE blog.articles SET update_time = create_time WHERE update_time IS NULL;
+UPDATE blog.articles SET view_count = 0 WHERE view_count IS NULL;
+UPDATE blog.articles SET like_count = 0 WHERE like_count IS NULL;
+UPDATE blog.articles SET comment_count = 0 WHERE comment_count IS NULL;
+UPDATE blog.articles SET share_count = 0 WHERE share_count IS NULL;
+
+-- 2. 改为 NOT NULL 并设默认值（update_time 由应用在修改内容时显式更新，不随计数变化自动更新）
+ALTER TABLE blog.articles
+    MODIFY create_time   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    MODIFY update_time   DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    MODIFY view_count    INT      NOT NULL DEFAULT 0,
+    MODIFY like_count    INT      NOT NULL DEFAULT 0,
+    MODIFY comment_count INT      NOT NULL DEFAULT 0,
+    MODIFY share_count   INT      NOT NULL DEFAULT 0;
+
+-- 3. (排序列, id) 联合索引
+ALTER TABLE blog.articles
+    ADD KEY idx_articles_create_time_id (create_time, id),
+    ADD KEY idx_articles_update_time_id (update_time, id),
+    ADD KEY idx_articles_view_count_id (view_count, id),
+    ADD KEY idx_articles_like_count_id (like_count, id),
+    ADD KEY idx_articles_comment_count_id (comment_count, id);
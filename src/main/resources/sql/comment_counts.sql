@@ -0,0 +1,16 @@
+-- 文章评论数
+-- articles.comment_count 由评论的新增、软删除以批量增量维护，评论列表总数和文章卡片直接读取它
+-- 上线前按评论表校正一次（之前该列从未更新，且删除评论是物理删除）
+
+UPDATE blog.articles a
+SET a.comment_count = (SELECT COUNT(*)
+                       FROM blog.comments c
+                       WHERE c.article_id = a.id AND IFNULL(c.isdelete, 0) = 0);
+
+-- 顶级评论的回复数同样只统计未删除的回复（依赖 comment_threads.sql 中的 root_id）
+UPDATE blog.comments r
+SET r.reply_count = (SELECT COUNT(*)
+                     FROM (SELECT root_id FROM blog.comments
+                           WHERE parent_id IS NOT NULL AND IFNULL(isdelete, 0) = 0) c
+                     WHERE c.root_id = r.id)
+WHERE r.parent_id IS NULL;
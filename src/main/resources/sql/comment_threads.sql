@@ -0,0 +1,33 @@
+-- 评论讨论串（楼中楼）
+-- root_id 为所在讨论串的顶级评论id（顶级评论为自身），path 为从顶级评论到本评论的各级id（10位补零，"."连接），
+-- 同一讨论串内按 path 排序即为先序遍历顺序；reply_count 只在顶级评论上维护，为该串的回复总数
+ALTER TABLE blog.comments
+    ADD COLUMN root_id     INT          NULL COMMENT '顶级评论id',
+    ADD COLUMN path        VARCHAR(191) NULL COMMENT '物化路径',
+    ADD COLUMN reply_count INT          NOT NULL DEFAULT 0 COMMENT '回复总数（顶级评论）';
+
+-- 1. 回填已有评论的 root_id、path
+WITH RECURSIVE thread AS (
+    SELECT id, id AS root_id, CAST(LPAD(id, 10, '0') AS CHAR(191)) AS path
+    FROM blog.comments
+    WHERE parent_id IS NULL
+    UNION ALL
+    SELECT c.id, t.root_id, CONCAT(t.path, '.', LPAD(c.id, 10, '0'))
+    FROM blog.comments c
+             JOIN thread t ON c.parent_id = t.id
+)
+UPDATE blog.comments c
+    JOIN thread t ON c.id = t.id
+SET c.root_id = t.root_id,
+    c.path    = t.path;
+
+UPDATE blog.comments r
+    JOIN (SELECT root_id, COUNT(*) AS replies
+          FROM blog.comments
+          WHERE parent_id IS NOT NULL AND root_id IS NOT NULL
+          GROUP BY root_id) x ON r.id = x.root_id
+SET r.reply_count = x.replies;
+
+-- 2. 顶级评论按文章、id倒序翻页；回复按讨论串、路径顺序翻页
+ALTER TABLE blog.comments ADD INDEX idx_comments_article_parent (article_id, parent_id, id);
+ALTER TABLE blog.comments ADD INDEX idx_comments_root_path (root_id, path);
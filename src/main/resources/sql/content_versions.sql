@@ -0,0 +1,14 @@
+-- 公开只读接口的内容版本（用于生成ETag）
+-- 文章列表、分类、标签有增删改时对应版本号加一；所有节点读同一行，生成的ETag一致，重启后也不变
+-- 文章详情的ETag取自文章自己的 update_time，不在这张表里
+CREATE TABLE IF NOT EXISTS blog.content_versions
+(
+    scope   VARCHAR(32) NOT NULL COMMENT '范围：articles/categories/tags',
+    version BIGINT      NOT NULL DEFAULT 0 COMMENT '版本号',
+    PRIMARY KEY (scope)
+) COMMENT '内容版本';
+
+INSERT IGNORE INTO blog.content_versions (scope, version)
+VALUES ('articles', 0),
+       ('categories', 0),
+       ('tags', 0);
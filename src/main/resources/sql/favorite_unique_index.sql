@@ -0,0 +1,10 @@
+-- 收藏关系表唯一索引
+-- 收藏使用 INSERT IGNORE、取消使用 DELETE，收藏用户位图按集合语义维护，依赖下面的唯一索引去重
+
+-- 1. 清理历史重复数据（保留id最小的一条）
+DELETE f1 FROM blog.article_favorites f1
+    JOIN blog.article_favorites f2
+      ON f1.user_id = f2.user_id AND f1.article_id = f2.article_id AND f1.id > f2.id;
+
+-- 2. 建唯一索引
+ALTER TABLE blog.article_favorites ADD UNIQUE KEY uk_article_favorites_user_article (user_id, article_id);
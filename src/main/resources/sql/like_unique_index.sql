@@ -0,0 +1,21 @@
+-- 点赞关系表唯一索引
+-- 点赞使用 INSERT IGNORE、取消使用 DELETE，同一用户对同一目标只能有一条记录，依赖下面的唯一索引保证幂等
+
+-- 1. 清理历史重复数据（保留id最小的一条）
+DELETE l1 FROM blog.article_likes l1
+    JOIN blog.article_likes l2
+      ON l1.user_id = l2.user_id AND l1.article_id = l2.article_id AND l1.id > l2.id;
+
+DELETE l1 FROM blog.comment_likes l1
+    JOIN blog.comment_likes l2
+      ON l1.user_id = l2.user_id AND l1.comment_id = l2.comment_id AND l1.id > l2.id;
+
+-- 2. 建唯一索引
+ALTER TABLE blog.article_likes ADD UNIQUE KEY uk_article_likes_user_article (user_id, article_id);
+ALTER TABLE blog.comment_likes ADD UNIQUE KEY uk_comment_likes_user_comment (user_id, comment_id);
+
+-- 3. 按关系表校正计数（可选，修复之前并发下的重复计数）
+UPDATE blog.articles a
+SET a.like_count = (SELECT COUNT(*) FROM blog.article_likes l WHERE l.article_id = a.id);
+UPDATE blog.comments c
+SET c.like_count = (SELECT COUNT(*) FROM blog.comment_likes l WHERE l.comment_id = c.id);
@@ -0,0 +1,40 @@
+-- 标签名唯一索引、文章-标签关联唯一索引
+-- 批量导入用 INSERT IGNORE 创建缺失的标签再按名称重新查询，并发创建同名标签时依赖下面的唯一索引去重
+
+-- 1. 合并历史重复标签（保留id最小的一个）
+-- 1.1 同一篇文章同时关联了多个同名标签时，只保留id最小的那条关联
+DELETE at FROM blog.article_tags at
+    JOIN blog.tags t ON t.id = at.tag_id
+    JOIN blog.article_tags other ON other.article_id = at.article_id AND other.tag_id < at.tag_id
+    JOIN blog.tags t2 ON t2.id = other.tag_id AND t2.name = t.name;
+
+-- 1.2 剩下指向重复标签的关联改指向保留的标签（上一步之后不会与已有关联重复）
+UPDATE blog.article_tags at
+    JOIN blog.tags t ON t.id = at.tag_id
+    JOIN (SELECT name, MIN(id) AS keep_id FROM blog.tags GROUP BY name HAVING COUNT(*) > 1) d ON d.name = t.name
+SET at.tag_id = d.keep_id
+WHERE at.tag_id <> d.keep_id;
+
+-- 1.3 删除重复的标签
+DELETE t1 FROM blog.tags t1
+    JOIN blog.tags t2 ON t1.name = t2.name AND t1.id > t2.id;
+
+-- 2. 清理完全相同的关联（关联表没有自增id，先取出去重后的行再写回）
+CREATE TEMPORARY TABLE blog.article_tags_dedup AS
+    SELECT article_id, tag_id FROM blog.article_tags GROUP BY article_id, tag_id HAVING COUNT(*) > 1;
+
+DELETE at FROM blog.article_tags at
+    JOIN blog.article_tags_dedup d ON d.article_id = at.article_id AND d.tag_id = at.tag_id;
+
+INSERT INTO blog.article_tags (article_id, tag_id)
+    SELECT article_id, tag_id FROM blog.article_tags_dedup;
+
+DROP TEMPORARY TABLE blog.article_tags_dedup;
+
+-- 3. 建唯一索引
+ALTER TABLE blog.article_tags ADD UNIQUE KEY uk_article_tags_article_tag (article_id, tag_id);
+ALTER TABLE blog.tags ADD UNIQUE KEY uk_tags_name (name);
+
+-- 4. 按关联表校正标签的文章数
+UPDATE blog.tags t
+SET t.article_count = (SELECT COUNT(*) FROM blog.article_tags at WHERE at.tag_id = t.id);
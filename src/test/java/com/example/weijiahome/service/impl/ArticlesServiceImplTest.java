@@ -0,0 +1,123 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.dto.GetArticlesDTO;
+import com.example.weijiahome.entity.po.ArticleCategories;
+import com.example.weijiahome.entity.po.ArticleTags;
+import com.example.weijiahome.entity.po.Categories;
+import com.example.weijiahome.entity.po.Tags;
+import com.example.weijiahome.entity.vo.ArticleVO;
+import com.example.weijiahome.entity.vo.PageResultVO;
+import com.example.weijiahome.mapper.ArticleCategoriesMapper;
+import com.example.weijiahome.mapper.ArticleTagsMapper;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.mapper.CategoriesMapper;
+import com.example.weijiahome.mapper.TagsMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 文章列表拼装的SQL条数测试，计数方式见 StatementCounter
+ */
+class ArticlesServiceImplTest {
+
+    private ArticlesMapper articlesMapper;
+    private ArticleTagsMapper articleTagsMapper;
+    private TagsMapper tagsMapper;
+    private ArticleCategoriesMapper articleCategoriesMapper;
+    private CategoriesMapper categoriesMapper;
+    private ArticlesServiceImpl articlesService;
+
+    @BeforeEach
+    void setUp() {
+        articlesMapper = mock(ArticlesMapper.class);
+        articleTagsMapper = mock(ArticleTagsMapper.class);
+        tagsMapper = mock(TagsMapper.class);
+        articleCategoriesMapper = mock(ArticleCategoriesMapper.class);
+        categoriesMapper = mock(CategoriesMapper.class);
+
+        ArticleTagsServiceImpl articleTagsService = new ArticleTagsServiceImpl();
+        ReflectionTestUtils.setField(articleTagsService, "articleTagsMapper", articleTagsMapper);
+        ReflectionTestUtils.setField(articleTagsService, "tagsMapper", tagsMapper);
+
+        ArticleCategoriesServiceImpl articleCategoriesService = new ArticleCategoriesServiceImpl();
+        ReflectionTestUtils.setField(articleCategoriesService, "categoryArticleMapper", articleCategoriesMapper);
+        ReflectionTestUtils.setField(articleCategoriesService, "categoriesMapper", categoriesMapper);
+
+        ArticleCountServiceImpl articleCountService = new ArticleCountServiceImpl();
+        ReflectionTestUtils.setField(articleCountService, "articlesMapper", articlesMapper);
+
+        articlesService = new ArticlesServiceImpl();
+        ReflectionTestUtils.setField(articlesService, "articlesMapper", articlesMapper);
+        ReflectionTestUtils.setField(articlesService, "articleTagsService", articleTagsService);
+        ReflectionTestUtils.setField(articlesService, "articleCategoriesService", articleCategoriesService);
+        ReflectionTestUtils.setField(articlesService, "articleCountService", articleCountService);
+        ReflectionTestUtils.setField(articlesService, "articleCounterService", new ArticleCounterServiceImpl());
+        //排序索引未构建，列表走SQL
+        ReflectionTestUtils.setField(articlesService, "articleSortIndexService", new ArticleSortIndexServiceImpl());
+    }
+
+    @Test
+    void statementCountStaysConstantAsPageSizeGrows() {
+        int small = statementsForPage(5);
+        int medium = statementsForPage(20);
+        int large = statementsForPage(50);
+
+        assertEquals(small, medium);
+        assertEquals(small, large);
+    }
+
+    @Test
+    void hydrateStitchesCategoriesAndTags() {
+        stubPage(3);
+        GetArticlesDTO dto = new GetArticlesDTO().setPage(1).setPageSize(3);
+
+        PageResultVO<ArticleVO> result = articlesService.getArticles(dto);
+
+        for (ArticleVO article : result.getRecords()) {
+            assertNotNull(article.getCategory());
+            assertEquals(2, article.getTags().size());
+        }
+    }
+
+    private int statementsForPage(int pageSize) {
+        //每次都用全新的服务实例，保证总数缓存是冷的
+        setUp();
+        stubPage(pageSize);
+        articlesService.getArticles(new GetArticlesDTO().setPage(1).setPageSize(pageSize));
+        return StatementCounter.count(articlesMapper, articleTagsMapper, tagsMapper, articleCategoriesMapper, categoriesMapper);
+    }
+
+    private void stubPage(int size) {
+        List<ArticleVO> page = new ArrayList<>();
+        List<ArticleTags> articleTags = new ArrayList<>();
+        List<ArticleCategories> articleCategories = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            ArticleVO vo = new ArticleVO();
+            vo.setId(i);
+            page.add(vo);
+            articleTags.add(new ArticleTags().setArticleId(i).setTagId(1));
+            articleTags.add(new ArticleTags().setArticleId(i).setTagId(2));
+            articleCategories.add(new ArticleCategories().setArticleId(i).setCategoryId(i % 3));
+        }
+        List<Tags> tags = List.of(new Tags().setId(1).setName("java"), new Tags().setId(2).setName("mysql"));
+        List<Categories> categories = List.of(new Categories().setId(0), new Categories().setId(1), new Categories().setId(2));
+
+        when(articlesMapper.getArticles(any())).thenReturn(page);
+        when(articlesMapper.countArticles(any())).thenReturn(size * 10);
+        when(articleTagsMapper.selectList(any())).thenReturn(articleTags);
+        when(tagsMapper.selectBatchIds(anyCollection())).thenReturn(tags);
+        when(articleCategoriesMapper.selectList(any())).thenReturn(articleCategories);
+        when(categoriesMapper.selectBatchIds(anyCollection())).thenReturn(categories);
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.weijiahome.service.impl;
+
+import com.example.weijiahome.entity.po.CommentLikes;
+import com.example.weijiahome.entity.po.Comments;
+import com.example.weijiahome.entity.po.Users;
+import com.example.weijiahome.entity.vo.CommentsLikeVO;
+import com.example.weijiahome.entity.vo.CommentsListVO;
+import com.example.weijiahome.mapper.ArticlesMapper;
+import com.example.weijiahome.mapper.CommentLikesMapper;
+import com.example.weijiahome.mapper.CommentsMapper;
+import com.example.weijiahome.mapper.UsersMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 评论列表拼装的SQL条数测试，计数方式见 StatementCounter
+ */
+class CommentsServiceImplTest {
+
+    private static final Integer ARTICLE_ID = 7;
+    private static final Integer VIEWER_ID = 100;
+
+    private CommentsMapper commentsMapper;
+    private UsersMapper usersMapper;
+    private CommentLikesMapper commentLikesMapper;
+    private ArticlesMapper articlesMapper;
+    private CommentsServiceImpl commentsService;
+
+    @BeforeEach
+    void setUp() {
+        commentsMapper = mock(CommentsMapper.class);
+        usersMapper = mock(UsersMapper.class);
+        commentLikesMapper = mock(CommentLikesMapper.class);
+        articlesMapper = mock(ArticlesMapper.class);
+
+        UsersServiceImpl usersService = new UsersServiceImpl();
+        ReflectionTestUtils.setField(usersService, "usersMapper", usersMapper);
+
+        InteractionBitmapServiceImpl interactionBitmapService = new InteractionBitmapServiceImpl();
+        ReflectionTestUtils.setField(interactionBitmapService, "commentLikesMapper", commentLikesMapper);
+        ReflectionTestUtils.setField(interactionBitmapService, "maxBytes", 1L << 20);
+        ReflectionTestUtils.setField(interactionBitmapService, "ttlSeconds", 600L);
+        interactionBitmapService.init();
+
+        commentsService = new CommentsServiceImpl();
+        ReflectionTestUtils.setField(commentsService, "commentsMapper", commentsMapper);
+        ReflectionTestUtils.setField(commentsService, "usersService", usersService);
+        ReflectionTestUtils.setField(commentsService, "interactionBitmapService", interactionBitmapService);
+        ReflectionTestUtils.setField(commentsService, "articleCounterService", new ArticleCounterServiceImpl());
+        ReflectionTestUtils.setField(commentsService, "articlesMapper", articlesMapper);
+        ReflectionTestUtils.setField(commentsService, "likeService", new LikeServiceImpl());
+    }
+
+    @Test
+    void statementCountIsPinnedPerPage() {
+        //评论、作者、点赞状态各一条，总数按主键读文章的评论计数列，不统计评论表
+        assertEquals(4, statementsForPage(5));
+        assertEquals(4, statementsForPage(20));
+        assertEquals(4, statementsForPage(50));
+    }
+
+    @Test
+    void hydrateStitchesAuthorsLikesAndStoredTime() {
+        stubPage(4);
+
+        CommentsListVO result = commentsService.getComments(VIEWER_ID, ARTICLE_ID, 1, 4);
+
+        assertEquals(40, result.getTotal());
+        for (CommentsLikeVO comment : result.getCommentsLikeVOs()) {
+            assertEquals("user" + comment.getUserId(), comment.getUserName());
+            assertEquals("avatar" + comment.getUserId(), comment.getUserAvatar());
+            assertEquals(createTime(comment.getId()), comment.getCreatedAt());
+            //偶数id的评论被当前用户点过赞
+            assertEquals(comment.getId() % 2 == 0, comment.getIsLiked());
+        }
+    }
+
+    private int statementsForPage(int pageSize) {
+        //每次都用全新的服务实例，保证点赞位图缓存是冷的
+        setUp();
+        stubPage(pageSize);
+        commentsService.getComments(VIEWER_ID, ARTICLE_ID, 1, pageSize);
+        return StatementCounter.count(commentsMapper, usersMapper, commentLikesMapper, articlesMapper);
+    }
+
+    private void stubPage(int size) {
+        List<Comments> comments = new ArrayList<>();
+        List<Users> users = new ArrayList<>();
+        List<CommentLikes> likes = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            Comments comment = new Comments();
+            comment.setId(i);
+            comment.setArticleId(ARTICLE_ID);
+            //作者有重复，按去重后的id查询
+            comment.setUserId(i % 3 + 1);
+            comment.setContent("comment" + i);
+            comment.setLikeCount(i);
+            comment.setCreateTime(createTime(i));
+            comments.add(comment);
+            if (i % 2 == 0) {
+                CommentLikes like = new CommentLikes();
+                like.setCommentId(i);
+                like.setUserId(VIEWER_ID);
+                likes.add(like);
+            }
+        }
+        for (int userId = 1; userId <= 3; userId++) {
+            Users user = new Users();
+            user.setId(userId);
+            user.setUsername("user" + userId);
+            user.setAvatar("avatar" + userId);
+            users.add(user);
+        }
+
+        when(commentsMapper.getComments(any(), anyInt(), anyInt())).thenReturn(comments);
+        when(articlesMapper.selectCommentCount(ARTICLE_ID)).thenReturn(size * 10);
+        when(usersMapper.selectList(any())).thenReturn(users);
+        when(commentLikesMapper.selectList(any())).thenReturn(likes);
+    }
+
+    private static LocalDateTime createTime(int commentId) {
+        return LocalDateTime.of(2025, 10, 1, 12, 0).plusMinutes(commentId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.weijiahome.service.impl;
+
+import org.mockito.Mockito;
+
+/**
+ * SQL条数测试的公共计数：每个mapper mock上的一次方法调用视为一条SQL
+ */
+final class StatementCounter {
+
+    private StatementCounter() {
+    }
+
+    /**
+     * 给定mapper mock上记录的调用总数
+     */
+    static int count(Object... mappers) {
+        int count = 0;
+        for (Object mapper : mappers) {
+            count += Mockito.mockingDetails(mapper).getInvocations().size();
+        }
+        return count;
+    }
+}